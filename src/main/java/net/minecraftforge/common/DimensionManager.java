@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -14,8 +15,10 @@ import java.util.concurrent.ConcurrentMap;
 import org.apache.logging.log4j.Level;
 
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 
 import net.minecraft.nbt.NBTTagCompound;
@@ -29,6 +32,10 @@ import net.minecraft.world.WorldProviderHell;
 import net.minecraft.world.WorldProviderSurface;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.WorldServerMulti;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.chunk.storage.IChunkLoader;
+import net.minecraft.world.gen.ChunkProviderServer;
 import net.minecraft.world.storage.ISaveHandler;
 import net.minecraft.world.storage.SaveHandler;
 import net.minecraftforge.event.world.WorldEvent;
@@ -43,6 +50,9 @@ public class DimensionManager
     private static boolean hasInit = false;
     private static Hashtable<Integer, Integer> dimensions = new Hashtable<Integer, Integer>();
     private static ArrayList<Integer> unloadQueue = new ArrayList<Integer>();
+    // Dimensions being unloaded, in the order they were queued
+    private static Map<Integer, Unloading> unloading = Maps.newLinkedHashMap();
+    private static final long UNLOAD_BUDGET = Long.getLong("forge.dimensionUnloadBudget", 10) * 1000000L;
     private static BitSet dimensionMap = new BitSet(Long.SIZE << 4);
     private static ConcurrentMap<World, World> weakWorldMap = new MapMaker().weakKeys().weakValues().<World,World>makeMap();
     private static Multiset<Integer> leakedWorlds = HashMultiset.create();
@@ -161,6 +171,10 @@ public class DimensionManager
         {
             List<World> allWorlds = Lists.newArrayList(weakWorldMap.keySet());
             allWorlds.removeAll(worlds.values());
+            for (Unloading u : unloading.values())
+            {
+                allWorlds.remove(u.world);
+            }
             for (ListIterator<World> li = allWorlds.listIterator(); li.hasNext(); )
             {
                 World w = li.next();
@@ -202,6 +216,11 @@ public class DimensionManager
             FMLLog.info("Unloading dimension %d", id);
         }
 
+        updateWorldServers();
+    }
+
+    private static void updateWorldServers()
+    {
         ArrayList<WorldServer> tmp = new ArrayList<WorldServer>();
         if (worlds.get( 0) != null)
             tmp.add(worlds.get( 0));
@@ -225,6 +244,11 @@ public class DimensionManager
 
     public static void initDimension(int dim)
     {
+        // Never load a dimension again before its previous unload has written everything
+        if (unloading.containsKey(dim))
+        {
+            finishUnload(dim);
+        }
         WorldServer overworld = getWorld(0);
         if (overworld == null)
         {
@@ -312,33 +336,121 @@ public class DimensionManager
 
     /*
     * To be called by the server at the appropriate time, do not call from mod code.
+    *
+    * Unloading happens in stages, so a dimension that still has chunks loaded does not stall the tick: the world stops
+    * ticking at once, its chunks are turned into tags over the following ticks within UNLOAD_BUDGET and handed to the
+    * chunk save queue, and the unload is only finished and announced through WorldEvent.Unload once all of them are
+    * written.
     */
     public static void unloadWorlds(Hashtable<Integer, long[]> worldTickTimes) {
         for (int id : unloadQueue) {
             WorldServer w = worlds.get(id);
-            try {
-                if (w != null)
-                {
-                    w.saveAllChunks(true, null);
-                }
-                else
-                {
-                    FMLLog.warning("Unexpected world unload - world %d is already unloaded", id);
-                }
-            } catch (MinecraftException e) {
-                e.printStackTrace();
+            if (w != null)
+            {
+                beginUnload(id, w, worldTickTimes);
+            }
+            else if (!unloading.containsKey(id))
+            {
+                FMLLog.warning("Unexpected world unload - world %d is already unloaded", id);
             }
-            finally
+        }
+        unloadQueue.clear();
+
+        long deadline = System.nanoTime() + UNLOAD_BUDGET;
+        for (Integer id : unloading.keySet().toArray(new Integer[unloading.size()]))
+        {
+            Unloading u = unloading.get(id);
+            if (u.save(deadline) && u.isWritten())
+            {
+                finishUnload(id);
+            }
+        }
+    }
+
+    /**
+     * Finishes all unloads in progress, waiting for their chunks to be written. Called when the server stops.
+     */
+    public static void finishUnloads()
+    {
+        for (Integer id : unloading.keySet().toArray(new Integer[unloading.size()]))
+        {
+            finishUnload(id);
+        }
+    }
+
+    private static void beginUnload(int id, WorldServer w, Hashtable<Integer, long[]> worldTickTimes)
+    {
+        // Stage one: stop ticking the world and save its level data
+        worlds.remove(id);
+        worldTickTimes.remove(id);
+        updateWorldServers();
+        try
+        {
+            w.saveAllChunks(false, null);
+        }
+        catch (MinecraftException e)
+        {
+            e.printStackTrace();
+        }
+        unloading.put(id, new Unloading(w));
+    }
+
+    private static void finishUnload(int id)
+    {
+        // Stage three, once everything is written. Forced early the rest of the chunks are saved now and flush waits
+        Unloading u = unloading.remove(id);
+        if (u == null)
+        {
+            return;
+        }
+        u.save(Long.MAX_VALUE);
+        MinecraftForge.EVENT_BUS.post(new WorldEvent.Unload(u.world));
+        u.world.flush();
+        setWorld(id, null);
+    }
+
+    private static class Unloading
+    {
+        final WorldServer world;
+        // Stage two: the chunks left to save, nothing when saving is disabled as with /save-off
+        final Iterator<Chunk> chunks;
+
+        Unloading(WorldServer world)
+        {
+            this.world = world;
+            this.chunks = world.theChunkProviderServer.canSave() ? Lists.newArrayList(world.theChunkProviderServer.loadedChunks).iterator() : Iterators.<Chunk>emptyIterator();
+        }
+
+        /**
+         * Hands chunks to the chunk save queue until the deadline, the same way saving all chunks of a world does.
+         *
+         * @return True once all chunks are handed over
+         */
+        boolean save(long deadline)
+        {
+            ChunkProviderServer provider = world.theChunkProviderServer;
+            while (chunks.hasNext())
             {
-                if (w != null)
+                if (System.nanoTime() > deadline)
+                {
+                    return false;
+                }
+                Chunk chunk = chunks.next();
+                provider.saveChunkExtraData(chunk);
+                if (chunk.needsSaving(true))
                 {
-                    MinecraftForge.EVENT_BUS.post(new WorldEvent.Unload(w));
-                    w.flush();
-                    setWorld(id, null);
+                    provider.saveChunkData(chunk);
+                    chunk.setModified(false);
                 }
             }
+            return true;
+        }
+
+        boolean isWritten()
+        {
+            IChunkLoader loader = world.theChunkProviderServer.currentChunkLoader;
+            return !(loader instanceof AnvilChunkLoader) || ((AnvilChunkLoader)loader).getSaveQueue().size() == 0;
         }
-        unloadQueue.clear();
     }
 
     /**
@@ -8,15 +8,12 @@ package net.minecraftforge.common;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import org.apache.logging.log4j.Level;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -41,16 +38,19 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.ChunkCoordIntPair;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.MathHelper;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.chunk.storage.IChunkLoader;
+import net.minecraftforge.common.chunkio.DormantChunkCache;
 import net.minecraftforge.common.config.ConfigCategory;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.common.config.Property;
 import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.common.util.LongHashSet;
 
 /**
  * Manages chunkloading for mods.
@@ -83,15 +83,14 @@ public class ForgeChunkManager
 
     private static Map<String, LoadingCallback> callbacks = Maps.newHashMap();
 
-    private static Map<World, ImmutableSetMultimap<ChunkCoordIntPair,Ticket>> forcedChunks = new MapMaker().weakKeys().makeMap();
+    private static Map<World, ForcedChunks> forcedChunks = new MapMaker().weakKeys().makeMap();
     private static BiMap<UUID,Ticket> pendingEntities = HashBiMap.create();
 
-    private static Map<World,Cache<Long, Chunk>> dormantChunkCache = new MapMaker().weakKeys().makeMap();
 
     private static File cfgFile;
     private static Configuration config;
     private static int playerTicketLength;
-    private static int dormantChunkCacheSize;
+    private static int dormantChunkCacheMemory;
 
     public static final List<String> MOD_PROP_ORDER = new ArrayList<String>(2);
 
@@ -398,14 +397,13 @@ public class ForgeChunkManager
         ArrayListMultimap<String, Ticket> newTickets = ArrayListMultimap.<String, Ticket>create();
         tickets.put(world, newTickets);
 
-        forcedChunks.put(world, ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>of());
+        forcedChunks.put(world, new ForcedChunks());
 
         if (!(world instanceof WorldServer))
         {
             return;
         }
 
-        dormantChunkCache.put(world, CacheBuilder.newBuilder().maximumSize(dormantChunkCacheSize).<Long, Chunk>build());
         WorldServer worldServer = (WorldServer) world;
         File chunkDir = worldServer.getChunkSaveLocation();
         File chunkLoaderData = new File(chunkDir, "forcedchunks.dat");
@@ -550,7 +548,7 @@ public class ForgeChunkManager
         }
 
         forcedChunks.remove(world);
-        dormantChunkCache.remove(world);
+        DormantChunkCache.invalidate(world);
      // integrated server is shutting down
         if (!MinecraftServer.getServer().isServerRunning())
         {
@@ -739,8 +737,7 @@ public class ForgeChunkManager
         ticket.requestedChunks.add(chunk);
         MinecraftForge.EVENT_BUS.post(new ForceChunkEvent(ticket, chunk));
 
-        ImmutableSetMultimap<ChunkCoordIntPair, Ticket> newMap = ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>builder().putAll(forcedChunks.get(ticket.world)).put(chunk, ticket).build();
-        forcedChunks.put(ticket.world, newMap);
+        forcedChunks.get(ticket.world).add(chunk, ticket);
         if (ticket.maxDepth > 0 && ticket.requestedChunks.size() > ticket.maxDepth)
         {
             ChunkCoordIntPair removed = ticket.requestedChunks.iterator().next();
@@ -779,10 +776,11 @@ public class ForgeChunkManager
         }
         ticket.requestedChunks.remove(chunk);
         MinecraftForge.EVENT_BUS.post(new UnforceChunkEvent(ticket, chunk));
-        LinkedHashMultimap<ChunkCoordIntPair, Ticket> copy = LinkedHashMultimap.create(forcedChunks.get(ticket.world));
-        copy.remove(chunk, ticket);
-        ImmutableSetMultimap<ChunkCoordIntPair, Ticket> newMap = ImmutableSetMultimap.copyOf(copy);
-        forcedChunks.put(ticket.world,newMap);
+        ForcedChunks forced = forcedChunks.get(ticket.world);
+        if (forced != null)
+        {
+            forced.remove(chunk, ticket);
+        }
     }
 
     static void loadConfiguration()
@@ -813,7 +811,79 @@ public class ForgeChunkManager
      */
     public static ImmutableSetMultimap<ChunkCoordIntPair, Ticket> getPersistentChunksFor(World world)
     {
-        return forcedChunks.containsKey(world) ? forcedChunks.get(world) : ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>of();
+        ForcedChunks forced = forcedChunks.get(world);
+        return forced != null ? forced.snapshot() : ImmutableSetMultimap.<ChunkCoordIntPair,Ticket>of();
+    }
+
+    /**
+     * Allocation free check for hot paths, prefer this over {@link #getPersistentChunksFor(World)}.
+     * Only call from the thread ticking the world.
+     *
+     * @return If any ticket forces the chunk at the given chunk coordinates
+     */
+    public static boolean isChunkForced(World world, int chunkX, int chunkZ)
+    {
+        ForcedChunks forced = forcedChunks.get(world);
+        return forced != null && forced.chunks.contains(ChunkCoordIntPair.chunkXZ2Int(chunkX, chunkZ));
+    }
+
+    /**
+     * @return If any chunk of the world is forced
+     */
+    public static boolean hasForcedChunks(World world)
+    {
+        ForcedChunks forced = forcedChunks.get(world);
+        return forced != null && !forced.chunks.isEmpty();
+    }
+
+    /**
+     * Forced chunks of one world. Changes are applied in place, the immutable view handed out by
+     * {@link ForgeChunkManager#getPersistentChunksFor(World)} is only rebuilt when it is asked for after a change.
+     */
+    private static class ForcedChunks
+    {
+        private final SetMultimap<ChunkCoordIntPair, Ticket> tickets = LinkedHashMultimap.create();
+        private final LongHashSet chunks = new LongHashSet();
+        private volatile ImmutableSetMultimap<ChunkCoordIntPair, Ticket> snapshot = ImmutableSetMultimap.of();
+        private volatile boolean dirty;
+
+        synchronized void add(ChunkCoordIntPair chunk, Ticket ticket)
+        {
+            if (tickets.put(chunk, ticket))
+            {
+                chunks.add(ChunkCoordIntPair.chunkXZ2Int(chunk.chunkXPos, chunk.chunkZPos));
+                dirty = true;
+            }
+        }
+
+        synchronized void remove(ChunkCoordIntPair chunk, Ticket ticket)
+        {
+            if (tickets.remove(chunk, ticket))
+            {
+                if (!tickets.containsKey(chunk))
+                {
+                    chunks.remove(ChunkCoordIntPair.chunkXZ2Int(chunk.chunkXPos, chunk.chunkZPos));
+                }
+                dirty = true;
+            }
+        }
+
+        ImmutableSetMultimap<ChunkCoordIntPair, Ticket> snapshot()
+        {
+            if (!dirty)
+            {
+                return snapshot;
+            }
+            synchronized (this)
+            {
+                if (dirty)
+                {
+                    snapshot = ImmutableSetMultimap.copyOf(tickets);
+                    dirty = false;
+                }
+                return snapshot;
+            }
+        }
     }
 
     static void saveWorld(World world)
@@ -892,35 +962,27 @@ public class ForgeChunkManager
         }
     }
 
-    public static void putDormantChunk(long coords, Chunk chunk)
+    /**
+     * Keeps a compressed snapshot of an unloading chunk, so loading it again soon does not have to hit the region file.
+     *
+     * @param loader The loader the chunk was just saved with
+     */
+    public static void putDormantChunk(long coords, Chunk chunk, IChunkLoader loader)
     {
-        Cache<Long, Chunk> cache = dormantChunkCache.get(chunk.getWorld());
-        if (cache != null)
+        if (DormantChunkCache.isEnabled() && loader instanceof AnvilChunkLoader)
         {
-            cache.put(coords, chunk);
+            // Taken where the save built it, a failed save still has to drop any older snapshot
+            NBTTagCompound tag = ((AnvilChunkLoader)loader).takeLastSaved(chunk.getChunkCoordIntPair());
+            DormantChunkCache.put(chunk.getWorld(), coords, tag);
         }
     }
 
-    public static Chunk fetchDormantChunk(long coords, World world)
+    /**
+     * @return The tag the chunk was saved with when it last unloaded, or null if it is not cached
+     */
+    public static NBTTagCompound fetchDormantChunk(long coords, World world)
     {
-        Cache<Long, Chunk> cache = dormantChunkCache.get(world);
-        if (cache == null)
-        {
-            return null;
-        }
-        Chunk chunk = cache.getIfPresent(coords);
-        if (chunk != null)
-        {
-            for (ClassInheritanceMultiMap<Entity> eList : chunk.getEntityLists())
-            {
-                Iterator<Entity> itr = (Iterator<Entity>)eList.iterator();
-                while (itr.hasNext())
-                {
-                    (itr.next()).resetEntityId();
-                }
-            }
-        }
-        return chunk;
+        return DormantChunkCache.fetch(world, coords);
     }
 
     static void captureConfig(File configDir)
@@ -985,14 +1047,18 @@ public class ForgeChunkManager
         playerTicketLength = temp.getInt(500);
         propOrder.add("playerTicketCount");
 
-        temp = config.get("defaults", "dormantChunkCacheSize", 0);
+        // Replaced by dormantChunkCacheMemory, the cache no longer holds live chunks
+        config.getCategory("defaults").remove("dormantChunkCacheSize");
+
+        temp = config.get("defaults", "dormantChunkCacheMemory", 0);
         temp.comment = "Unloaded chunks can first be kept in a dormant cache for quicker\n" +
-                    "loading times. Specify the size (in chunks) of that cache here";
-        temp.setLanguageKey("forge.configgui.dormantChunkCacheSize");
+                    "loading times. They are stored compressed, specify the memory (in MB) shared by all dimensions here";
+        temp.setLanguageKey("forge.configgui.dormantChunkCacheMemory");
         temp.setMinValue(0);
-        dormantChunkCacheSize = temp.getInt(0);
-        propOrder.add("dormantChunkCacheSize");
-        FMLLog.info("Configured a dormant chunk cache size of %d", temp.getInt(0));
+        dormantChunkCacheMemory = temp.getInt(0);
+        propOrder.add("dormantChunkCacheMemory");
+        DormantChunkCache.configure(dormantChunkCacheMemory * 1024L * 1024L);
+        FMLLog.info("Configured a dormant chunk cache of %d MB", dormantChunkCacheMemory);
 
         config.setCategoryPropertyOrder("defaults", propOrder);
 
@@ -453,6 +453,8 @@ public class ForgeHooks
 
     public static boolean onLivingUpdate(EntityLivingBase entity)
     {
+        // Fired for every living entity every tick, skip the allocation when nobody listens
+        if (!MinecraftForge.EVENT_BUS.hasListeners(LivingUpdateEvent.class)) return false;
         return MinecraftForge.EVENT_BUS.post(new LivingUpdateEvent(entity));
     }
 
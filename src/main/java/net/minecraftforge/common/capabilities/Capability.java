@@ -69,6 +69,11 @@ public class Capability<T>
      * @return An instance of the default storage handler. You can safely use this store your default implementation in NBT.
      */
     public IStorage<T> getStorage() { return storage; }
+    /**
+     * @return A small number unique to this capability, assigned in registration order. Only valid for this session,
+     * meant for lookup tables such as the one in {@link CapabilityDispatcher}.
+     */
+    public int getIndex() { return index; }
 
     /**
      * A NEW instance of the default implementation.
@@ -96,10 +101,12 @@ public class Capability<T>
     private final String name;
     private final IStorage<T> storage;
     private final Callable<? extends T> factory;
+    private final int index;
 
-    Capability(String name, IStorage<T> storage, Callable<? extends T> factory)
+    Capability(String name, int index, IStorage<T> storage, Callable<? extends T> factory)
     {
         this.name = name;
+        this.index = index;
         this.storage = storage;
         this.factory = factory;
     }
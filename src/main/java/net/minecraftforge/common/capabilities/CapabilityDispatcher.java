@@ -1,5 +1,6 @@
 package net.minecraftforge.common.capabilities;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -20,12 +21,20 @@ import net.minecraftforge.common.util.INBTSerializable;
  *
  * Internally the handlers are baked into arrays for fast iteration.
  * The ResourceLocations will be used for the NBT Key when serializing.
+ *
+ * Providers implementing {@link IStaticCapabilityProvider} are only asked
+ * once per capability and side, after that lookups skip straight to the
+ * provider that answered, or to the first provider that is not static.
  */
 public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompound>, ICapabilityProvider
 {
     private ICapabilityProvider[] caps;
     private INBTSerializable<NBTBase>[] writers;
     private String[] names;
+    private boolean[] dynamic;
+    private boolean hasStatic;
+    // Position in caps to start looking at, plus one, per capability index and side. Zero is not resolved yet
+    private short[] start = new short[0];
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list)
     {
@@ -63,14 +72,23 @@ public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompou
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+
+        dynamic = new boolean[caps.length];
+        for (int x = 0; x < caps.length; x++)
+        {
+            dynamic[x] = !(caps[x] instanceof IStaticCapabilityProvider);
+            hasStatic |= !dynamic[x];
+        }
+        // Positions are stored in shorts, absurd numbers of providers just do without the table
+        hasStatic &= caps.length < Short.MAX_VALUE;
     }
 
     @Override
     public boolean hasCapability(Capability<?> capability, EnumFacing facing)
     {
-        for (ICapabilityProvider cap : caps)
+        for (int x = start(capability, facing); x < caps.length; x++)
         {
-            if (cap.hasCapability(capability, facing))
+            if (caps[x].hasCapability(capability, facing))
             {
                 return true;
             }
@@ -81,9 +99,9 @@ public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompou
     @Override
     public <T> T getCapability(Capability<T> capability, EnumFacing facing)
     {
-        for (ICapabilityProvider cap : caps)
+        for (int x = start(capability, facing); x < caps.length; x++)
         {
-            T ret = cap.getCapability(capability, facing);
+            T ret = caps[x].getCapability(capability, facing);
             if (ret != null)
             {
                 return ret;
@@ -92,6 +110,43 @@ public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompou
         return null;
     }
 
+    /**
+     * Forgets which providers answer which capabilities. Needs to be called when an {@link IStaticCapabilityProvider}
+     * changes the capabilities it supports.
+     */
+    public void invalidate()
+    {
+        start = new short[0];
+    }
+
+    private int start(Capability<?> capability, EnumFacing facing)
+    {
+        if (!hasStatic || capability == null)
+        {
+            return 0;
+        }
+        int slot = capability.getIndex() * 7 + (facing == null ? 6 : facing.ordinal());
+        short[] table = start;
+        if (slot < table.length && table[slot] != 0)
+        {
+            return table[slot] - 1;
+        }
+
+        // Skip the static providers that do not have it, stop at the first one that does or that may change its mind
+        int x = 0;
+        while (x < caps.length && !dynamic[x] && !caps[x].hasCapability(capability, facing))
+        {
+            x++;
+        }
+        if (slot >= table.length)
+        {
+            table = Arrays.copyOf(table, Math.max(slot + 1, table.length * 2));
+        }
+        table[slot] = (short)(x + 1);
+        start = table;
+        return x;
+    }
+
     @Override
     public NBTTagCompound serializeNBT()
     {
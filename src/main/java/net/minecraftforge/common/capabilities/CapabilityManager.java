@@ -70,7 +70,7 @@ public enum CapabilityManager
         String realName = type.getName().intern();
         Preconditions.checkState(!providers.containsKey(realName), "Can not register a capability implementation multiple times: %s", realName);
 
-        Capability<T> cap = new Capability<T>(realName, storage, factory);
+        Capability<T> cap = new Capability<T>(realName, providers.size(), storage, factory);
         providers.put(realName, cap);
 
         List<Function<Capability<?>, Object>> list = callbacks.get(realName);
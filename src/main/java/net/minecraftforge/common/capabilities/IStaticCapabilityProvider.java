@@ -0,0 +1,14 @@
+package net.minecraftforge.common.capabilities;
+
+/**
+ * A provider whose supported capabilities do not change, which lets a {@link CapabilityDispatcher} remember which of
+ * its providers answers a capability on a side instead of asking all of them on every lookup.
+ *
+ * For every capability and side, {@link #getCapability} must return null whenever {@link #hasCapability} returns
+ * false, and {@link #hasCapability} must keep returning the same value. A provider that does change its capabilities
+ * on rare occasions, like a machine receiving an upgrade, may still implement this if it calls invalidateCapabilities
+ * on the tile entity, entity or item stack it is attached to every time it does.
+ */
+public interface IStaticCapabilityProvider extends ICapabilityProvider
+{
+}
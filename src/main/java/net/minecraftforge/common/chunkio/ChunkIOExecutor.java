@@ -1,12 +1,31 @@
 package net.minecraftforge.common.chunkio;
 
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import net.minecraftforge.common.util.AsynchronousExecutor;
 
 public class ChunkIOExecutor {
-    static final int BASE_THREADS = 1;
+    static final int BASE_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    static final int MAX_THREADS = Math.max(BASE_THREADS, Runtime.getRuntime().availableProcessors());
     static final int PLAYERS_PER_THREAD = 50;
+    static final int REPRIORITIZE_INTERVAL = 20;
+
+    private static int ticks;
 
     private static final AsynchronousExecutor<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException> instance = new AsynchronousExecutor<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException>(new ChunkIOProvider(), BASE_THREADS);
+    private static final ThreadPoolExecutor writePool = new ThreadPoolExecutor(BASE_THREADS, BASE_THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Chunk I/O Writer Thread-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
 
     public static net.minecraft.world.chunk.Chunk syncChunkLoad(net.minecraft.world.World world, net.minecraft.world.chunk.storage.AnvilChunkLoader loader, net.minecraft.world.gen.ChunkProviderServer provider, int x, int z) {
         return instance.getSkipQueue(new QueuedChunk(x, z, loader, world, provider));
@@ -21,12 +40,30 @@ public class ChunkIOExecutor {
         instance.drop(new QueuedChunk(x, z, null, world, null), runnable);
     }
 
+    // Region writers of ChunkSaveQueue, one runnable per region file with queued saves
+    static void queueChunkWrite(Runnable writer) {
+        writePool.execute(writer);
+    }
+
     public static void adjustPoolSize(int players) {
-        int size = Math.max(BASE_THREADS, (int) Math.ceil(players / PLAYERS_PER_THREAD));
-        instance.setActiveThreads(size);
+        int size = Math.max(BASE_THREADS, (int) Math.ceil(players / (double) PLAYERS_PER_THREAD));
+        instance.setActiveThreads(Math.min(MAX_THREADS, size));
+    }
+
+    /**
+     * Loads queued chunks within radius of the given chunk ahead of all other queued loads for the next few seconds.
+     * Meant for teleport destinations, where the player has nothing loaded around them yet.
+     */
+    public static void prioritizeArea(net.minecraft.world.World world, int x, int z, int radius) {
+        ChunkIOPriority.prioritizeArea(world, x, z, radius);
     }
 
     public static void tick() {
+        ChunkIOPriority.tick();
+        // Players move, re-rank what has not been read yet
+        if (++ticks % REPRIORITIZE_INTERVAL == 0) {
+            instance.reprioritize();
+        }
         instance.finishActive();
     }
 }
\ No newline at end of file
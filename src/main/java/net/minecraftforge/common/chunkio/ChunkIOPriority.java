@@ -0,0 +1,80 @@
+package net.minecraftforge.common.chunkio;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
+import net.minecraftforge.common.ForgeChunkManager;
+
+/**
+ * Ranks queued chunk loads. Chunks closer to a player load first, chunks held by a forced ticket count as four times
+ * closer, and chunks inside a prioritized area (a teleport destination) load before everything else.
+ * <p>
+ * Everything in here is only touched from the server thread.
+ */
+class ChunkIOPriority {
+    // Squared chunk distance used when the world has no players
+    static final int NO_PLAYER = 1 << 20;
+    static final int AREA_BOOST = 1 << 24;
+    static final int AREA_TICKS = 200;
+
+    private static final List<Area> areas = Lists.newArrayList();
+    private static int ticks;
+
+    static int getPriority(World world, int x, int z) {
+        for (Area area : areas) {
+            if (area.world == world && Math.abs(x - area.x) <= area.radius && Math.abs(z - area.z) <= area.radius) {
+                return distanceSq(x, z, area.x, area.z) - AREA_BOOST;
+            }
+        }
+
+        int priority = NO_PLAYER;
+        for (EntityPlayer player : world.playerEntities) {
+            priority = Math.min(priority, distanceSq(x, z, (int) player.posX >> 4, (int) player.posZ >> 4));
+        }
+
+        if (ForgeChunkManager.isChunkForced(world, x, z)) {
+            priority >>= 2;
+        }
+
+        return priority;
+    }
+
+    static void prioritizeArea(World world, int x, int z, int radius) {
+        areas.add(new Area(world, x, z, radius, ticks + AREA_TICKS));
+    }
+
+    static void tick() {
+        ticks++;
+        for (Iterator<Area> itr = areas.iterator(); itr.hasNext(); ) {
+            if (itr.next().expires <= ticks) {
+                itr.remove();
+            }
+        }
+    }
+
+    private static int distanceSq(int x1, int z1, int x2, int z2) {
+        int dx = Math.min(Math.abs(x1 - x2), 1024);
+        int dz = Math.min(Math.abs(z1 - z2), 1024);
+        return dx * dx + dz * dz;
+    }
+
+    private static class Area {
+        final World world;
+        final int x;
+        final int z;
+        final int radius;
+        final int expires;
+
+        Area(World world, int x, int z, int radius, int expires) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+            this.radius = radius;
+            this.expires = expires;
+        }
+    }
+}
@@ -9,10 +9,20 @@ import net.minecraftforge.event.world.ChunkDataEvent;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 
-class ChunkIOProvider implements AsynchronousExecutor.CallBackProvider<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException> {
+class ChunkIOProvider implements AsynchronousExecutor.ShardedCallBackProvider<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException>,
+        AsynchronousExecutor.PrioritizedCallBackProvider<QueuedChunk, net.minecraft.world.chunk.Chunk, Runnable, RuntimeException> {
     private final AtomicInteger threadNumber = new AtomicInteger(1);
 
-    // async stuff
+    // sync stuff, nearest chunks are loaded first
+    public int getPriority(QueuedChunk queuedChunk) {
+        return ChunkIOPriority.getPriority(queuedChunk.world, queuedChunk.x, queuedChunk.z);
+    }
+
+    // async stuff, region reads are serialized per file so workers never contend on the same RegionFile
+    public Object getShardKey(QueuedChunk queuedChunk) {
+        return queuedChunk.getRegionKey();
+    }
+
     public net.minecraft.world.chunk.Chunk callStage1(QueuedChunk queuedChunk) throws RuntimeException {
         net.minecraft.world.chunk.storage.AnvilChunkLoader loader = queuedChunk.loader;
         Object[] data = null;
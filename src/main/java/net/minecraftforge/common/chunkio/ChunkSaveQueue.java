@@ -0,0 +1,160 @@
+package net.minecraftforge.common.chunkio;
+
+import java.io.DataOutputStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.chunk.storage.RegionFileCache;
+import net.minecraft.world.storage.IThreadedFileIO;
+import net.minecraft.world.storage.ThreadedFileIOBase;
+import net.minecraftforge.fml.common.FMLLog;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Pending chunk saves of a single {@link AnvilChunkLoader}.
+ * <p>
+ * Saved chunk tags are kept here until they have been compressed and written to their region file by the chunk I/O
+ * write pool. Writes are serialized per region file and run in parallel across regions. Saving a chunk again before
+ * its previous tag reached the disk replaces that tag, so only the newest state is written.
+ * <p>
+ * The queue registers itself with {@link ThreadedFileIOBase} so {@link ThreadedFileIOBase#waitForFinish()} still
+ * blocks until every queued chunk has been written.
+ */
+public class ChunkSaveQueue implements IThreadedFileIO
+{
+    private final AnvilChunkLoader loader;
+    private final ConcurrentMap<ChunkCoordIntPair, NBTTagCompound> pending = new ConcurrentHashMap<ChunkCoordIntPair, NBTTagCompound>();
+    private final Map<Long, RegionWriter> writers = new HashMap<Long, RegionWriter>();
+
+    public ChunkSaveQueue(AnvilChunkLoader loader)
+    {
+        this.loader = loader;
+    }
+
+    /**
+     * Queues a chunk tag for writing. Must be called from the server thread.
+     */
+    public void queue(ChunkCoordIntPair pos, NBTTagCompound tag)
+    {
+        if (pending.put(pos, tag) == null)
+        {
+            schedule(pos);
+        }
+        // else: a write of this chunk is already scheduled and will pick up the newer tag
+        ThreadedFileIOBase.getThreadedIOInstance().queueIO(this);
+    }
+
+    /**
+     * @return The newest tag saved for this chunk that may not be on disk yet, or null
+     */
+    public NBTTagCompound getPending(ChunkCoordIntPair pos)
+    {
+        return pending.get(pos);
+    }
+
+    public boolean isPending(ChunkCoordIntPair pos)
+    {
+        return pending.containsKey(pos);
+    }
+
+    public int size()
+    {
+        return pending.size();
+    }
+
+    /**
+     * Polled by the file I/O thread, reports work as long as any chunk still has to be written.
+     */
+    @Override
+    public boolean writeNextIO()
+    {
+        return !pending.isEmpty();
+    }
+
+    private void schedule(ChunkCoordIntPair pos)
+    {
+        Long key = ChunkCoordIntPair.chunkXZ2Int(pos.chunkXPos >> 5, pos.chunkZPos >> 5);
+        synchronized (writers)
+        {
+            RegionWriter writer = writers.get(key);
+            if (writer == null)
+            {
+                writers.put(key, writer = new RegionWriter(key));
+                ChunkIOExecutor.queueChunkWrite(writer);
+            }
+            writer.queue.add(pos);
+        }
+    }
+
+    private void write(ChunkCoordIntPair pos, NBTTagCompound tag)
+    {
+        try
+        {
+            DataOutputStream out = RegionFileCache.getChunkOutputStream(loader.chunkSaveLocation, pos.chunkXPos, pos.chunkZPos);
+            CompressedStreamTools.write(tag, out);
+            out.close();
+        }
+        catch (Exception e)
+        {
+            FMLLog.log(Level.ERROR, e, "Failed to save chunk %d,%d in %s", pos.chunkXPos, pos.chunkZPos, loader.chunkSaveLocation);
+        }
+    }
+
+    /**
+     * Writes the queued chunks of one region file, one at a time.
+     */
+    private class RegionWriter implements Runnable
+    {
+        private final Long key;
+        private final Queue<ChunkCoordIntPair> queue = new ArrayDeque<ChunkCoordIntPair>();
+
+        RegionWriter(Long key)
+        {
+            this.key = key;
+        }
+
+        @Override
+        public void run()
+        {
+            while (true)
+            {
+                ChunkCoordIntPair pos;
+                synchronized (writers)
+                {
+                    pos = queue.poll();
+                    if (pos == null)
+                    {
+                        writers.remove(key);
+                        return;
+                    }
+                }
+
+                NBTTagCompound tag = pending.get(pos);
+                if (tag == null)
+                {
+                    continue;
+                }
+                write(pos, tag);
+
+                // Keep the tag visible to loads until it is on disk. If the chunk was saved again meanwhile the newer
+                // tag is still pending and has to be written as well.
+                if (!pending.remove(pos, tag))
+                {
+                    synchronized (writers)
+                    {
+                        queue.add(pos);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package net.minecraftforge.common.chunkio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLLog;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * Compressed snapshots of recently unloaded chunks, shared by all worlds and bounded by their compressed size.
+ * <p>
+ * A snapshot is the tag the chunk was last saved with. It is compressed on the chunk I/O write pool and read back
+ * by the chunk loader instead of the region file the next time the chunk loads. Each snapshot is handed out once,
+ * the chunk is live again after that and will be snapshotted anew when it unloads.
+ */
+public class DormantChunkCache
+{
+    private static Cache<Key, byte[]> cache;
+    // Snapshots still being compressed, a newer put or a fetch removes them so stale data never enters the cache
+    private static final ConcurrentMap<Key, NBTTagCompound> compressing = new ConcurrentHashMap<Key, NBTTagCompound>();
+    private static final Object lock = new Object();
+
+    /**
+     * @param maxBytes Budget for the compressed snapshots of all worlds, 0 disables the cache
+     */
+    public static void configure(long maxBytes)
+    {
+        synchronized (lock)
+        {
+            compressing.clear();
+            cache = maxBytes <= 0 ? null : CacheBuilder.newBuilder().maximumWeight(maxBytes).weigher(new Weigher<Key, byte[]>()
+            {
+                @Override
+                public int weigh(Key key, byte[] value)
+                {
+                    return value.length;
+                }
+            }).<Key, byte[]>build();
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return cache != null;
+    }
+
+    /**
+     * Snapshots an unloading chunk. Called from the server thread right after the chunk has been saved with the tag.
+     *
+     * @param tag The saved tag, null only drops an older snapshot
+     */
+    public static void put(World world, final long coords, final NBTTagCompound tag)
+    {
+        final Cache<Key, byte[]> cache = DormantChunkCache.cache;
+        if (cache == null)
+        {
+            return;
+        }
+        final Key key = new Key(world, coords);
+        synchronized (lock)
+        {
+            if (tag != null)
+            {
+                compressing.put(key, tag);
+            }
+            else
+            {
+                compressing.remove(key);
+            }
+            cache.invalidate(key);
+        }
+        if (tag == null)
+        {
+            return;
+        }
+
+        ChunkIOExecutor.queueChunkWrite(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                byte[] data = null;
+                try
+                {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+                    CompressedStreamTools.writeCompressed(tag, out);
+                    data = out.toByteArray();
+                }
+                catch (IOException e)
+                {
+                    FMLLog.log(Level.ERROR, e, "Failed to compress dormant chunk %d,%d", (int)coords, (int)(coords >> 32));
+                }
+
+                synchronized (lock)
+                {
+                    if (compressing.remove(key, tag) && data != null)
+                    {
+                        cache.put(key, data);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Takes the snapshot of a chunk out of the cache. Safe to call from any thread.
+     *
+     * @return The tag the chunk was last saved with before it unloaded, or null
+     */
+    public static NBTTagCompound fetch(World world, long coords)
+    {
+        Cache<Key, byte[]> cache = DormantChunkCache.cache;
+        if (cache == null)
+        {
+            return null;
+        }
+        Key key = new Key(world, coords);
+        NBTTagCompound tag;
+        byte[] data;
+        synchronized (lock)
+        {
+            tag = compressing.remove(key);
+            data = cache.getIfPresent(key);
+            cache.invalidate(key);
+        }
+
+        if (tag != null)
+        {
+            // The compressing task may still be writing this instance, the loader gets its own
+            return (NBTTagCompound)tag.copy();
+        }
+        if (data == null)
+        {
+            return null;
+        }
+        try
+        {
+            return CompressedStreamTools.readCompressed(new ByteArrayInputStream(data));
+        }
+        catch (IOException e)
+        {
+            FMLLog.log(Level.ERROR, e, "Failed to read dormant chunk %d,%d, it will be loaded from disk", (int)coords, (int)(coords >> 32));
+            return null;
+        }
+    }
+
+    /**
+     * Drops all snapshots of a world, called when it unloads.
+     */
+    public static void invalidate(World world)
+    {
+        Cache<Key, byte[]> cache = DormantChunkCache.cache;
+        synchronized (lock)
+        {
+            for (Iterator<Key> itr = compressing.keySet().iterator(); itr.hasNext(); )
+            {
+                if (itr.next().world == world)
+                {
+                    itr.remove();
+                }
+            }
+            if (cache != null)
+            {
+                for (Iterator<Key> itr = cache.asMap().keySet().iterator(); itr.hasNext(); )
+                {
+                    if (itr.next().world == world)
+                    {
+                        itr.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Key
+    {
+        final World world;
+        final long coords;
+
+        Key(World world, long coords)
+        {
+            this.world = world;
+            this.coords = coords;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(world) * 31 + (int)(coords ^ (coords >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key)obj;
+            return world == other.world && coords == other.coords;
+        }
+    }
+}
@@ -17,6 +17,13 @@ class QueuedChunk {
         this.provider = provider;
     }
 
+    /**
+     * Key of the region file holding this chunk, loads sharing it are read by one I/O worker at a time.
+     */
+    Object getRegionKey() {
+        return new RegionKey(world, x >> 5, z >> 5);
+    }
+
     @Override
     public int hashCode() {
         return (x * 31 + z * 29) ^ world.hashCode();
@@ -49,4 +56,31 @@ class QueuedChunk {
 
         return result.toString();
     }
-}
+
+    static final class RegionKey {
+        final net.minecraft.world.World world;
+        final int regionX;
+        final int regionZ;
+
+        RegionKey(net.minecraft.world.World world, int regionX, int regionZ) {
+            this.world = world;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+
+        @Override
+        public int hashCode() {
+            return (regionX * 31 + regionZ * 29) ^ world.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (object instanceof RegionKey) {
+                RegionKey other = (RegionKey) object;
+                return regionX == other.regionX && regionZ == other.regionZ && world == other.world;
+            }
+
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -1,16 +1,20 @@
 package net.minecraftforge.common.util;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.minecraftforge.fml.common.FMLLog;
 
@@ -57,6 +61,55 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         void callStage3(P parameter, T object, C callback) throws E;
     }
 
+    /**
+     * Optional extension of {@link CallBackProvider}. Parameters that share a shard key have stage 1 executed serially
+     * on a single worker at a time, while different shards run concurrently on the pool.
+     */
+    public static interface ShardedCallBackProvider<P, T, C, E extends Throwable> extends CallBackProvider<P, T, C, E> {
+
+        /**
+         * Asynchronous safe call
+         *
+         * @param parameter parameter object provided
+         * @return the key grouping this parameter with others, must implement {@link Object#hashCode()} and {@link Object#equals(Object)}
+         */
+        Object getShardKey(P parameter);
+    }
+
+    /**
+     * Optional extension of {@link CallBackProvider}. Queued parameters are executed in ascending priority order
+     * instead of submission order. Priorities are computed when a parameter is added and again on {@link AsynchronousExecutor#reprioritize()}.
+     */
+    public static interface PrioritizedCallBackProvider<P, T, C, E extends Throwable> extends CallBackProvider<P, T, C, E> {
+
+        /**
+         * Synchronous call
+         *
+         * @param parameter parameter object provided
+         * @return the priority of the parameter, lower values are executed first
+         */
+        int getPriority(P parameter);
+    }
+
+    /**
+     * Queue entry of the pool, ordered by priority and then by submission.
+     */
+    static abstract class Ordered implements Runnable {
+        int priority;
+        long sequence;
+    }
+
+    static final Comparator<Runnable> ORDER = new Comparator<Runnable>() {
+        public int compare(Runnable a, Runnable b) {
+            final Ordered x = (Ordered) a;
+            final Ordered y = (Ordered) b;
+            if (x.priority != y.priority) {
+                return x.priority < y.priority ? -1 : 1;
+            }
+            return x.sequence < y.sequence ? -1 : (x.sequence == y.sequence ? 0 : 1);
+        }
+    };
+
     @SuppressWarnings("rawtypes")
     static final AtomicIntegerFieldUpdater STATE_FIELD = AtomicIntegerFieldUpdater.newUpdater(AsynchronousExecutor.Task.class, "state");
 
@@ -65,7 +118,7 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         return STATE_FIELD.compareAndSet($this, expected, value);
     }
 
-    class Task implements Runnable {
+    class Task extends Ordered {
         static final int PENDING = 0x0;
         static final int STAGE_1_ASYNC = PENDING + 1;
         static final int STAGE_1_SYNC = STAGE_1_ASYNC + 1;
@@ -80,6 +133,8 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
 
         Task(final P parameter) {
             this.parameter = parameter;
+            this.priority = priorityOf(parameter);
+            this.sequence = AsynchronousExecutor.this.sequence.getAndIncrement();
         }
 
         public void run() {
@@ -215,9 +270,55 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         }
     }
 
+    /**
+     * Drains the queued tasks of one shard. Yields the worker back to the pool after {@link #SHARD_BATCH} tasks so
+     * a single busy shard can not starve the others.
+     */
+    class Shard extends Ordered {
+        final Object key;
+        final Queue<Task> queue = new PriorityQueue<Task>(11, ORDER);
+
+        Shard(final Object key) {
+            this.key = key;
+        }
+
+        public void run() {
+            for (int i = 0; i < SHARD_BATCH; i++) {
+                final Task task;
+                synchronized (shards) {
+                    task = queue.poll();
+                    if (task == null) {
+                        shards.remove(key);
+                        return;
+                    }
+                }
+                task.run();
+            }
+            synchronized (shards) {
+                order();
+            }
+            pool.execute(this);
+        }
+
+        /**
+         * Takes the place of the most urgent queued task, must hold the shards lock while not in the pool queue
+         */
+        void order() {
+            final Task head = queue.peek();
+            if (head != null) {
+                priority = head.priority;
+            }
+            sequence = AsynchronousExecutor.this.sequence.getAndIncrement();
+        }
+    }
+
+    static final int SHARD_BATCH = 32;
+
     final CallBackProvider<P, T, C, E> provider;
     final Queue<Task> finished = new ConcurrentLinkedQueue<Task>();
     final Map<P, Task> tasks = new HashMap<P, Task>();
+    final Map<Object, Shard> shards = new HashMap<Object, Shard>();
+    final AtomicLong sequence = new AtomicLong();
     final ThreadPoolExecutor pool;
 
     /**
@@ -231,7 +332,7 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         this.provider = provider;
 
         // We have an unbound queue size so do not need a max thread size
-        pool = new ThreadPoolExecutor(coreSize, Integer.MAX_VALUE, 60l, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), provider);
+        pool = new ThreadPoolExecutor(coreSize, Integer.MAX_VALUE, 60l, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(11, ORDER), provider);
     }
 
     /**
@@ -243,11 +344,77 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
         Task task = tasks.get(parameter);
         if (task == null) {
             tasks.put(parameter, task = new Task(parameter));
-            pool.execute(task);
+            execute(task);
         }
         task.callbacks.add(callback);
     }
 
+    @SuppressWarnings("unchecked")
+    private void execute(final Task task) {
+        if (!(provider instanceof ShardedCallBackProvider)) {
+            pool.execute(task);
+            return;
+        }
+        final Object key = ((ShardedCallBackProvider<P, T, C, E>) provider).getShardKey(task.parameter);
+        synchronized (shards) {
+            Shard shard = shards.get(key);
+            if (shard != null) {
+                // Already queued or running, it will pick this task up
+                shard.queue.add(task);
+                if (task.priority < shard.priority && pool.getQueue().remove(shard)) {
+                    // Still waiting for a worker, move it up to the new task
+                    shard.order();
+                    pool.execute(shard);
+                }
+                return;
+            }
+            shards.put(key, shard = new Shard(key));
+            shard.queue.add(task);
+            shard.order();
+            pool.execute(shard);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    int priorityOf(final P parameter) {
+        if (provider instanceof PrioritizedCallBackProvider) {
+            return ((PrioritizedCallBackProvider<P, T, C, E>) provider).getPriority(parameter);
+        }
+        return 0;
+    }
+
+    /**
+     * Recomputes the priority of every task that has not started yet, and reorders the queue accordingly.
+     * <p>
+     * This should always be synchronous.
+     */
+    public void reprioritize() {
+        if (!(provider instanceof PrioritizedCallBackProvider)) {
+            return;
+        }
+        final List<Runnable> queued = new ArrayList<Runnable>();
+        synchronized (shards) {
+            // Entries may only change priority while they are out of their queues
+            pool.getQueue().drainTo(queued);
+            for (Task task : tasks.values()) {
+                if (task.state == Task.PENDING) {
+                    task.priority = priorityOf(task.parameter);
+                }
+            }
+            for (Shard shard : shards.values()) {
+                final List<Task> pending = new ArrayList<Task>(shard.queue);
+                shard.queue.clear();
+                shard.queue.addAll(pending);
+            }
+            for (Runnable runnable : queued) {
+                if (runnable instanceof AsynchronousExecutor.Shard) {
+                    ((AsynchronousExecutor<?, ?, ?, ?>.Shard) runnable).order();
+                }
+            }
+            pool.getQueue().addAll(queued);
+        }
+    }
+
     /**
      * This removes a particular callback from the specified parameter.
      * <p>
@@ -358,4 +525,8 @@ public final class AsynchronousExecutor<P, T, C, E extends Throwable> {
     public void setActiveThreads(final int coreSize) {
         pool.setCorePoolSize(coreSize);
     }
+
+    public int getActiveThreads() {
+        return pool.getCorePoolSize();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package net.minecraftforge.common.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EnumCreatureType;
+
+/**
+ * The loaded entity list of a world, keeping count of the entities of each {@link EnumCreatureType} so
+ * {@link net.minecraft.world.World#countEntities(EnumCreatureType, boolean)} does not have to look at every entity.
+ * <p>
+ * Entities are classified with {@link Entity#isCreatureType} when they are added, and exactly that contribution is
+ * taken back when they are removed. The result of that can change while an entity is loaded, when a mob becomes
+ * persistent for example. {@link net.minecraft.entity.EntityLiving#enablePersistence()} reports this through
+ * {@link #reclassify(Entity)}, other changes are caught by counting again every {@value #RECOUNT_INTERVAL} lookups.
+ */
+@SuppressWarnings("serial")
+public class EntityCountingList extends ArrayList<Entity>
+{
+    private static final int RECOUNT_INTERVAL = 1200;
+    private static final EnumCreatureType[] TYPES = EnumCreatureType.values();
+    // Bit of a type in a contribution mask, the same bit shifted by this marks it as counted for spawning
+    private static final int SPAWN_SHIFT = 16;
+
+    private final int[] all = new int[TYPES.length];
+    private final int[] forSpawnCount = new int[TYPES.length];
+    // What each entity was counted as, so removing it takes back exactly that
+    private final Map<Entity, Contribution> counted = new IdentityHashMap<Entity, Contribution>();
+    private int lookups;
+
+    private static class Contribution
+    {
+        int mask;
+        // Entities can be in the list more than once
+        int refs;
+    }
+
+    /**
+     * @return The number of entities that are of the creature type, see {@link Entity#isCreatureType}
+     */
+    public int count(EnumCreatureType type, boolean forSpawnCount)
+    {
+        if (++lookups >= RECOUNT_INTERVAL)
+        {
+            recount();
+        }
+        return forSpawnCount ? this.forSpawnCount[type.ordinal()] : all[type.ordinal()];
+    }
+
+    /**
+     * Counts every entity again, correcting for entities that changed their creature type while loaded.
+     */
+    public void recount()
+    {
+        lookups = 0;
+        for (int t = 0; t < TYPES.length; t++)
+        {
+            all[t] = 0;
+            forSpawnCount[t] = 0;
+        }
+        counted.clear();
+        for (int x = 0; x < size(); x++)
+        {
+            track(get(x));
+        }
+    }
+
+    /**
+     * Classifies a loaded entity again, call when the result of {@link Entity#isCreatureType} changed for it.
+     */
+    public void reclassify(Entity entity)
+    {
+        Contribution contribution = counted.get(entity);
+        if (contribution != null)
+        {
+            apply(contribution.mask, -contribution.refs);
+            contribution.mask = classify(entity);
+            apply(contribution.mask, contribution.refs);
+        }
+    }
+
+    private static int classify(Entity entity)
+    {
+        int mask = 0;
+        for (int t = 0; t < TYPES.length; t++)
+        {
+            if (entity.isCreatureType(TYPES[t], false))
+            {
+                mask |= 1 << t;
+            }
+            if (entity.isCreatureType(TYPES[t], true))
+            {
+                mask |= 1 << (t + SPAWN_SHIFT);
+            }
+        }
+        return mask;
+    }
+
+    private void apply(int mask, int delta)
+    {
+        for (int t = 0; t < TYPES.length; t++)
+        {
+            if ((mask & (1 << t)) != 0)
+            {
+                all[t] += delta;
+            }
+            if ((mask & (1 << (t + SPAWN_SHIFT))) != 0)
+            {
+                forSpawnCount[t] += delta;
+            }
+        }
+    }
+
+    private void track(Entity entity)
+    {
+        if (entity == null)
+        {
+            return;
+        }
+        Contribution contribution = counted.get(entity);
+        if (contribution == null)
+        {
+            contribution = new Contribution();
+            contribution.mask = classify(entity);
+            counted.put(entity, contribution);
+        }
+        contribution.refs++;
+        apply(contribution.mask, 1);
+    }
+
+    private void untrack(Object obj)
+    {
+        Contribution contribution = counted.get(obj);
+        if (contribution == null)
+        {
+            return;
+        }
+        apply(contribution.mask, -1);
+        if (--contribution.refs <= 0)
+        {
+            counted.remove(obj);
+        }
+    }
+
+    @Override
+    public boolean add(Entity entity)
+    {
+        track(entity);
+        return super.add(entity);
+    }
+
+    @Override
+    public void add(int index, Entity entity)
+    {
+        super.add(index, entity);
+        track(entity);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Entity> c)
+    {
+        for (Entity entity : c)
+        {
+            track(entity);
+        }
+        return super.addAll(c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Entity> c)
+    {
+        boolean ret = super.addAll(index, c);
+        for (Entity entity : c)
+        {
+            track(entity);
+        }
+        return ret;
+    }
+
+    @Override
+    public Entity set(int index, Entity entity)
+    {
+        Entity old = super.set(index, entity);
+        untrack(old);
+        track(entity);
+        return old;
+    }
+
+    @Override
+    public Entity remove(int index)
+    {
+        Entity old = super.remove(index);
+        untrack(old);
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object obj)
+    {
+        // Entities are equal by id, take back what the element that is actually removed contributed
+        int index = indexOf(obj);
+        if (index < 0)
+        {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c)
+    {
+        if (c.isEmpty())
+        {
+            return false;
+        }
+        for (int x = 0; x < size(); x++)
+        {
+            if (c.contains(get(x)))
+            {
+                untrack(get(x));
+            }
+        }
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c)
+    {
+        boolean ret = super.retainAll(c);
+        recount();
+        return ret;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        for (int x = fromIndex; x < toIndex; x++)
+        {
+            untrack(get(x));
+        }
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        recount();
+    }
+}
@@ -0,0 +1,147 @@
+package net.minecraftforge.common.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive ints to non null values.
+ * Lookups do not allocate. Entries can not be removed individually. Not thread safe.
+ */
+public class IntObjectHashMap<V>
+{
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private int[] keys;
+    // null marks a free slot
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntObjectHashMap()
+    {
+        this(16);
+    }
+
+    public IntObjectHashMap(int expected)
+    {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expected)
+        {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int)(capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(int key)
+    {
+        key *= 0x9E3779B9;
+        return key ^ (key >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key)
+    {
+        int slot = hash(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null)
+        {
+            if (keys[slot] == key)
+            {
+                return (V)value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return The value previously mapped to the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value)
+    {
+        if (value == null)
+        {
+            throw new NullPointerException("IntObjectHashMap does not accept null values");
+        }
+        int slot = hash(key) & mask;
+        Object current;
+        while ((current = values[slot]) != null)
+        {
+            if (keys[slot] == key)
+            {
+                values[slot] = value;
+                return (V)current;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt)
+        {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    private void rehash(int capacity)
+    {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldValues[i] != null)
+            {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @return A copy of all keys in the map, in no particular order
+     */
+    public int[] keys()
+    {
+        int[] ret = new int[size];
+        int x = 0;
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (values[i] != null)
+            {
+                ret[x++] = keys[i];
+            }
+        }
+        return ret;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
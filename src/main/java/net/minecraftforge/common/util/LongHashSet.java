@@ -0,0 +1,191 @@
+package net.minecraftforge.common.util;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of primitive longs, meant for packed chunk coordinates.
+ * Lookups do not allocate. Not thread safe.
+ */
+public class LongHashSet
+{
+    private static final float LOAD_FACTOR = 0.5F;
+
+    // 0 marks a free slot, the value 0 itself is tracked separately
+    private long[] table;
+    private boolean hasZero;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongHashSet()
+    {
+        this(16);
+    }
+
+    public LongHashSet(int expected)
+    {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expected)
+        {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity)
+    {
+        table = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int)(capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long value)
+    {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return (int)value;
+    }
+
+    public boolean contains(long value)
+    {
+        if (value == 0)
+        {
+            return hasZero;
+        }
+        int slot = hash(value) & mask;
+        long current;
+        while ((current = table[slot]) != 0)
+        {
+            if (current == value)
+            {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return If the value was not in the set yet
+     */
+    public boolean add(long value)
+    {
+        if (value == 0)
+        {
+            if (hasZero)
+            {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int slot = hash(value) & mask;
+        long current;
+        while ((current = table[slot]) != 0)
+        {
+            if (current == value)
+            {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        if (++size > resizeAt)
+        {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return If the value was in the set
+     */
+    public boolean remove(long value)
+    {
+        if (value == 0)
+        {
+            if (!hasZero)
+            {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int slot = hash(value) & mask;
+        long current;
+        while ((current = table[slot]) != 0)
+        {
+            if (current == value)
+            {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Closes the gap left by a removed value, so probing never has to skip tombstones.
+     */
+    private void shiftBack(int gap)
+    {
+        int slot = gap;
+        while (true)
+        {
+            slot = (slot + 1) & mask;
+            long current = table[slot];
+            if (current == 0)
+            {
+                table[gap] = 0;
+                return;
+            }
+            int home = hash(current) & mask;
+            // Move the value into the gap unless its home slot lies cyclically within (gap, slot]
+            if (gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot))
+            {
+                table[gap] = current;
+                gap = slot;
+            }
+        }
+    }
+
+    private void rehash(int capacity)
+    {
+        long[] old = table;
+        allocate(capacity);
+        for (long value : old)
+        {
+            if (value != 0)
+            {
+                int slot = hash(value) & mask;
+                while (table[slot] != 0)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(table, 0);
+        hasZero = false;
+        size = 0;
+    }
+}
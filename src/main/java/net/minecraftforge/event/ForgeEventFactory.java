@@ -106,6 +106,7 @@ public class ForgeEventFactory
 
     public static boolean doPlayerHarvestCheck(EntityPlayer player, Block block, boolean success)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(PlayerEvent.HarvestCheck.class)) return success;
         PlayerEvent.HarvestCheck event = new PlayerEvent.HarvestCheck(player, block, success);
         MinecraftForge.EVENT_BUS.post(event);
         return event.success;
@@ -113,6 +114,7 @@ public class ForgeEventFactory
 
     public static float getBreakSpeed(EntityPlayer player, IBlockState state, float original, BlockPos pos)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(PlayerEvent.BreakSpeed.class)) return original;
         PlayerEvent.BreakSpeed event = new PlayerEvent.BreakSpeed(player, state, original, pos);
         return (MinecraftForge.EVENT_BUS.post(event) ? -1 : event.newSpeed);
     }
@@ -131,6 +133,7 @@ public class ForgeEventFactory
 
     public static Result canEntitySpawn(EntityLiving entity, World world, float x, float y, float z)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(LivingSpawnEvent.CheckSpawn.class)) return Result.DEFAULT;
         LivingSpawnEvent.CheckSpawn event = new LivingSpawnEvent.CheckSpawn(entity, world, x, y, z);
         MinecraftForge.EVENT_BUS.post(event);
         return event.getResult();
@@ -143,6 +146,7 @@ public class ForgeEventFactory
 
     public static Result canEntityDespawn(EntityLiving entity)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(AllowDespawn.class)) return Result.DEFAULT;
         AllowDespawn event = new AllowDespawn(entity);
         MinecraftForge.EVENT_BUS.post(event);
         return event.getResult();
@@ -170,6 +174,7 @@ public class ForgeEventFactory
 
     public static int getMaxSpawnPackSize(EntityLiving entity)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(LivingPackSizeEvent.class)) return entity.getMaxSpawnedInChunk();
         LivingPackSizeEvent maxCanSpawnEvent = new LivingPackSizeEvent(entity);
         MinecraftForge.EVENT_BUS.post(maxCanSpawnEvent);
         return maxCanSpawnEvent.getResult() == Result.ALLOW ? maxCanSpawnEvent.maxPackSize : entity.getMaxSpawnedInChunk();
@@ -216,6 +221,7 @@ public class ForgeEventFactory
 
     public static int onItemUseTick(EntityPlayer player, ItemStack item, int duration)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(PlayerUseItemEvent.Tick.class)) return duration;
         PlayerUseItemEvent event = new PlayerUseItemEvent.Tick(player, item, duration);
         return MinecraftForge.EVENT_BUS.post(event) ? -1 : event.duration;
     }
@@ -313,6 +319,7 @@ public class ForgeEventFactory
 
     public static boolean canEntityUpdate(Entity entity)
     {
+        if (!MinecraftForge.EVENT_BUS.hasListeners(EntityEvent.CanUpdate.class)) return false;
         EntityEvent.CanUpdate event = new EntityEvent.CanUpdate(entity);
         MinecraftForge.EVENT_BUS.post(event);
         return event.canUpdate;
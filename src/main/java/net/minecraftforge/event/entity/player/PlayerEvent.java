@@ -8,6 +8,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.BlockPos;
 import net.minecraftforge.event.entity.living.LivingEvent;
+import net.minecraftforge.fml.common.eventhandler.AsyncSafe;
 
 /**
  * PlayerEvent is fired whenever an event involving Living entities occurs. <br>
@@ -230,6 +231,7 @@ public class PlayerEvent extends LivingEvent
      * <em>WARNING</em>: Do not overwrite the player's .dat file here. You will
      * corrupt the world state.
      */
+    @AsyncSafe
     public static class SaveToFile extends PlayerEvent {
         /**
          * The directory where player data is being stored. Use this
@@ -2,6 +2,9 @@ package net.minecraftforge.event.world;
 
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.common.eventhandler.AsyncSafe;
+import net.minecraftforge.fml.common.eventhandler.Event;
+import net.minecraftforge.fml.common.eventhandler.IAsyncCopyable;
 
 /**
  * ChunkDataEvent is fired when an event involving chunk data occurs.<br>
@@ -56,12 +59,23 @@ public class ChunkDataEvent extends ChunkEvent
      * This event does not have a result. {@link HasResult} <br>
      * <br>
      * This event is fired on the {@link MinecraftForge#EVENT_BUS}.<br>
+     * <br>
+     * Async subscribers receive a copy of the saved data, what they add to it is not saved. {@link #getChunk()} is
+     * the live chunk the server thread keeps changing, async subscribers must not touch it.<br>
      **/
-    public static class Save extends ChunkDataEvent
+    @AsyncSafe
+    public static class Save extends ChunkDataEvent implements IAsyncCopyable
     {
         public Save(Chunk chunk, NBTTagCompound data)
         {
             super(chunk, data);
         }
+
+        @Override
+        public Event copyForAsync()
+        {
+            // The saved tag is handed to the chunk writers and the dormant chunk cache right after the event
+            return new Save(getChunk(), (NBTTagCompound)getData().copy());
+        }
     }
 }
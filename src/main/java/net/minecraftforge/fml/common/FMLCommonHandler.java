@@ -55,6 +55,8 @@ import net.minecraftforge.fml.common.gameevent.PlayerEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.handshake.NetworkDispatcher;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageExecutor;
 import net.minecraftforge.fml.relauncher.CoreModManager;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.server.FMLServerHandler;
@@ -250,6 +252,7 @@ public class FMLCommonHandler
     public void onPostServerTick()
     {
         bus().post(new TickEvent.ServerTickEvent(Phase.END));
+        NetworkDispatcher.flushBatches();
     }
 
     /**
@@ -262,6 +265,7 @@ public class FMLCommonHandler
 
     public void onPreServerTick()
     {
+        MessageExecutor.runMainThreadTasks(Side.SERVER);
         bus().post(new TickEvent.ServerTickEvent(Phase.START));
     }
 
@@ -327,6 +331,7 @@ public class FMLCommonHandler
 
     public void onPreClientTick()
     {
+        MessageExecutor.runMainThreadTasks(Side.CLIENT);
         bus().post(new TickEvent.ClientTickEvent(Phase.START));
     }
 
@@ -486,6 +491,7 @@ public class FMLCommonHandler
         sidedDelegate.serverStopped();
         MinecraftServer server = getMinecraftServerInstance();
         Loader.instance().serverStopped();
+        MessageExecutor.clear(Side.SERVER);
         // FORCE the internal server to stop: hello optifine workaround!
         if (server!=null) ObfuscationReflectionHelper.setPrivateValue(MinecraftServer.class, server, false, "field_71316"+"_v", "u", "serverStopped");
 
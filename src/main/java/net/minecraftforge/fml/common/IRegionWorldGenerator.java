@@ -0,0 +1,40 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common;
+
+import java.util.Random;
+
+import net.minecraft.world.World;
+
+/**
+ * A world generator that only touches the blocks of the chunks being populated, and does not depend on blocks placed
+ * by other generators.
+ * <p>
+ * FML calls {@link #generate(Random, int, int, WorldGenRegion)} instead of the {@link World} variant. Consecutive
+ * region generators all read the world as it was before any of them ran, write into regions of their own and have their
+ * regions committed in generator order. With fml.parallelWorldGen set to true they run on worker threads, otherwise on
+ * the server thread, with the same result either way. Implement the {@link World} variant for other callers through
+ * {@link WorldGenRegion#generate}.
+ */
+public interface IRegionWorldGenerator extends IWorldGenerator
+{
+    /**
+     * Generate some world, possibly on a worker thread.
+     *
+     * @param random the chunk specific {@link Random}.
+     * @param chunkX the chunk X coordinate of this chunk.
+     * @param chunkZ the chunk Z coordinate of this chunk.
+     * @param region the blocks that may be read and written, see {@link WorldGenRegion}
+     */
+    public void generate(Random random, int chunkX, int chunkZ, WorldGenRegion region);
+}
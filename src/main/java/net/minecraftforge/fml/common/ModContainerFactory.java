@@ -29,7 +29,8 @@ import com.google.common.collect.Maps;
 
 public class ModContainerFactory
 {
-    public static Map<Type, Constructor<? extends ModContainer>> modTypes = Maps.newHashMap();
+    // Read by the discovery threads, which explore mod candidates in parallel
+    public static Map<Type, Constructor<? extends ModContainer>> modTypes = Maps.newConcurrentMap();
     private static Pattern modClass = Pattern.compile(".*(\\.|)(mod\\_[^\\s$]+)$");
     private static ModContainerFactory INSTANCE = new ModContainerFactory();
 
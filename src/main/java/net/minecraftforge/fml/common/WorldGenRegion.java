@@ -0,0 +1,162 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The blocks an {@link IRegionWorldGenerator} may touch while populating a chunk: the 2x2 chunks starting at the
+ * chunk being populated, which are always loaded during population.
+ * <p>
+ * Reads go to the chunks directly, writes are kept back until {@link #commit()} replays them on the world, in the order
+ * they were made. A region reads its own writes, but not the writes of other regions. Reading and writing outside the
+ * window throws an {@link IllegalArgumentException}.
+ */
+public class WorldGenRegion
+{
+    private final World world;
+    private final long seed;
+    private final IChunkProvider chunkGenerator;
+    private final IChunkProvider chunkProvider;
+    private final int minX;
+    private final int minZ;
+    private final Chunk[] chunks = new Chunk[4];
+    private final Map<BlockPos, IBlockState> written = Maps.newHashMap();
+    private final List<Write> writes = Lists.newArrayList();
+
+    /**
+     * Must be created on the thread that owns the world.
+     */
+    public WorldGenRegion(World world, int chunkX, int chunkZ, IChunkProvider chunkGenerator, IChunkProvider chunkProvider)
+    {
+        this.world = world;
+        this.seed = world.getSeed();
+        this.chunkGenerator = chunkGenerator;
+        this.chunkProvider = chunkProvider;
+        this.minX = chunkX << 4;
+        this.minZ = chunkZ << 4;
+        for (int i = 0; i < 4; i++)
+        {
+            chunks[i] = world.getChunkFromChunkCoords(chunkX + (i & 1), chunkZ + (i >> 1));
+        }
+    }
+
+    /**
+     * Runs a region generator directly on the world, for the {@link World} variant of
+     * {@link IWorldGenerator#generate}.
+     */
+    public static void generate(IRegionWorldGenerator generator, Random random, int chunkX, int chunkZ, World world, IChunkProvider chunkGenerator, IChunkProvider chunkProvider)
+    {
+        WorldGenRegion region = new WorldGenRegion(world, chunkX, chunkZ, chunkGenerator, chunkProvider);
+        generator.generate(random, chunkX, chunkZ, region);
+        region.commit();
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    public IChunkProvider getChunkGenerator()
+    {
+        return chunkGenerator;
+    }
+
+    public IChunkProvider getChunkProvider()
+    {
+        return chunkProvider;
+    }
+
+    public boolean contains(BlockPos pos)
+    {
+        int x = pos.getX() - minX;
+        int z = pos.getZ() - minZ;
+        return x >= 0 && x < 32 && z >= 0 && z < 32 && pos.getY() >= 0 && pos.getY() < 256;
+    }
+
+    public IBlockState getBlockState(BlockPos pos)
+    {
+        IBlockState state = written.get(pos);
+        return state != null ? state : chunk(pos).getBlockState(pos);
+    }
+
+    public boolean isAirBlock(BlockPos pos)
+    {
+        return getBlockState(pos).getBlock().getMaterial() == Material.air;
+    }
+
+    public void setBlockState(BlockPos pos, IBlockState state)
+    {
+        setBlockState(pos, state, 3);
+    }
+
+    /**
+     * @param flags As for {@link World#setBlockState(BlockPos, IBlockState, int)}, applied when committing
+     */
+    public void setBlockState(BlockPos pos, IBlockState state, int flags)
+    {
+        chunk(pos);
+        // Callers may hand in mutable positions
+        pos = new BlockPos(pos);
+        written.put(pos, state);
+        writes.add(new Write(pos, state, flags));
+    }
+
+    /**
+     * Applies the writes to the world. Must be called on the thread that owns the world.
+     */
+    public void commit()
+    {
+        for (Write write : writes)
+        {
+            world.setBlockState(write.pos, write.state, write.flags);
+        }
+        writes.clear();
+        written.clear();
+    }
+
+    private Chunk chunk(BlockPos pos)
+    {
+        if (!contains(pos))
+        {
+            throw new IllegalArgumentException("Position " + pos + " is outside the region starting at " + minX + ", " + minZ);
+        }
+        return chunks[((pos.getX() - minX) >> 4) | (((pos.getZ() - minZ) >> 4) << 1)];
+    }
+
+    private static class Write
+    {
+        final BlockPos pos;
+        final IBlockState state;
+        final int flags;
+
+        Write(BlockPos pos, IBlockState state, int flags)
+        {
+            this.pos = pos;
+            this.state = state;
+            this.flags = flags;
+        }
+    }
+}
@@ -19,9 +19,9 @@ import java.util.Set;
 import net.minecraftforge.fml.common.ModContainer;
 
 import com.google.common.base.Predicate;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
@@ -93,13 +93,14 @@ public class ASMDataTable
             return container.getSource().equals(data.candidate.getModContainer());
         }
     }
-    private SetMultimap<String, ASMData> globalAnnotationData = HashMultimap.create();
+    // Linked so iteration follows the order the candidates were discovered in
+    private SetMultimap<String, ASMData> globalAnnotationData = LinkedHashMultimap.create();
     private Map<ModContainer, SetMultimap<String,ASMData>> containerAnnotationData;
 
     private List<ModContainer> containers = Lists.newArrayList();
-    private SetMultimap<String,ModCandidate> packageMap = HashMultimap.create();
+    private SetMultimap<String,ModCandidate> packageMap = LinkedHashMultimap.create();
 
-    public SetMultimap<String,ASMData> getAnnotationsFor(ModContainer container)
+    public synchronized SetMultimap<String,ASMData> getAnnotationsFor(ModContainer container)
     {
         if (containerAnnotationData == null)
         {
@@ -119,17 +120,17 @@ public class ASMDataTable
         return globalAnnotationData.get(annotation);
     }
 
-    public void addASMData(ModCandidate candidate, String annotation, String className, String objectName, Map<String,Object> annotationInfo)
+    public synchronized void addASMData(ModCandidate candidate, String annotation, String className, String objectName, Map<String,Object> annotationInfo)
     {
         globalAnnotationData.put(annotation, new ASMData(candidate, annotation, className, objectName, annotationInfo));
     }
 
-    public void addContainer(ModContainer container)
+    public synchronized void addContainer(ModContainer container)
     {
         this.containers.add(container);
     }
 
-    public void registerPackage(ModCandidate modCandidate, String pkg)
+    public synchronized void registerPackage(ModCandidate modCandidate, String pkg)
     {
         this.packageMap.put(pkg,modCandidate);
     }
@@ -138,4 +139,19 @@ public class ASMDataTable
     {
         return this.packageMap.get(pkg);
     }
+
+    /**
+     * Appends everything found by another table. Candidates are explored into tables of their own in parallel, merging
+     * them in candidate order keeps the combined table independent of which exploration finished first.
+     */
+    public synchronized void merge(ASMDataTable other)
+    {
+        synchronized (other)
+        {
+            this.globalAnnotationData.putAll(other.globalAnnotationData);
+            this.containers.addAll(other.containers);
+            this.packageMap.putAll(other.packageMap);
+            this.containerAnnotationData = null;
+        }
+    }
 }
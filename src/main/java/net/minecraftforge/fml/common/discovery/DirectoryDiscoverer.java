@@ -42,15 +42,12 @@ public class DirectoryDiscoverer implements ITypeDiscoverer
         }
     }
 
-    private ASMDataTable table;
-
     @Override
     public List<ModContainer> discover(ModCandidate candidate, ASMDataTable table)
     {
-        this.table = table;
         List<ModContainer> found = Lists.newArrayList();
         FMLLog.fine("Examining directory %s for potential mods", candidate.getModContainer().getName());
-        exploreFileSystem("", candidate.getModContainer(), found, candidate, null);
+        exploreFileSystem("", candidate.getModContainer(), found, candidate, null, table);
         for (ModContainer mc : found)
         {
             table.addContainer(mc);
@@ -58,7 +55,10 @@ public class DirectoryDiscoverer implements ITypeDiscoverer
         return found;
     }
 
-    public void exploreFileSystem(String path, File modDir, List<ModContainer> harvestedMods, ModCandidate candidate, MetadataCollection mc)
+    /**
+     * The table is passed along rather than kept in a field, candidates are explored in parallel by one shared discoverer.
+     */
+    public void exploreFileSystem(String path, File modDir, List<ModContainer> harvestedMods, ModCandidate candidate, MetadataCollection mc, ASMDataTable table)
     {
         if (path.length() == 0)
         {
@@ -86,7 +86,7 @@ public class DirectoryDiscoverer implements ITypeDiscoverer
             if (file.isDirectory())
             {
                 FMLLog.finer("Recursing into package %s", path + file.getName());
-                exploreFileSystem(path + file.getName() + ".", file, harvestedMods, candidate, mc);
+                exploreFileSystem(path + file.getName() + ".", file, harvestedMods, candidate, mc, table);
                 continue;
             }
             Matcher match = classFile.matcher(file.getName());
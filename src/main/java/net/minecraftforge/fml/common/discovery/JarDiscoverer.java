@@ -12,6 +12,7 @@
 
 package net.minecraftforge.fml.common.discovery;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.jar.JarFile;
@@ -54,6 +55,31 @@ public class JarDiscoverer implements ITypeDiscoverer
                 FMLLog.fine("The mod container %s appears to be missing an mcmod.info file", candidate.getModContainer().getName());
                 mc = MetadataCollection.from(null, "");
             }
+            JarScanCache.Entry cached = JarScanCache.load(candidate.getModContainer());
+            if (cached != null)
+            {
+                FMLLog.finer("Using the cached scan of %s", candidate.getModContainer().getName());
+                for (int i = 0; i < cached.size(); i++)
+                {
+                    String name = cached.getClassEntry(i);
+                    if (cached.mustParse(i))
+                    {
+                        ZipEntry ze = jar.getEntry(name);
+                        if (ze == null)
+                        {
+                            throw new LoaderException(new IllegalStateException("Cached class " + name + " is missing from " + candidate.getModContainer().getName()));
+                        }
+                        parse(candidate, table, jar, ze, mc, foundMods);
+                    }
+                    else
+                    {
+                        candidate.addClassEntry(name);
+                    }
+                }
+                return foundMods;
+            }
+
+            JarScanCache.Entry scanned = new JarScanCache.Entry();
             for (ZipEntry ze : Collections.list(jar.entries()))
             {
                 if (ze.getName()!=null && ze.getName().startsWith("__MACOSX"))
@@ -63,29 +89,13 @@ public class JarDiscoverer implements ITypeDiscoverer
                 Matcher match = classFile.matcher(ze.getName());
                 if (match.matches())
                 {
-                    ASMModParser modParser;
-                    try
-                    {
-                        modParser = new ASMModParser(jar.getInputStream(ze));
-                        candidate.addClassEntry(ze.getName());
-                    }
-                    catch (LoaderException e)
-                    {
-                        FMLLog.log(Level.ERROR, e, "There was a problem reading the entry %s in the jar %s - probably a corrupt zip", ze.getName(), candidate.getModContainer().getPath());
-                        jar.close();
-                        throw e;
-                    }
-                    modParser.validate();
-                    modParser.sendToTable(table, candidate);
-                    ModContainer container = ModContainerFactory.instance().build(modParser, candidate.getModContainer(), candidate);
-                    if (container!=null)
-                    {
-                        table.addContainer(container);
-                        foundMods.add(container);
-                        container.bindMetadata(mc);
-                    }
+                    ASMModParser modParser = parse(candidate, table, jar, ze, mc, foundMods);
+                    // Classes without annotations only matter to the candidate, unless they could be ModLoader mods
+                    scanned.add(ze.getName(), !modParser.getAnnotations().isEmpty() || modParser.getASMType().getClassName().contains("mod_")
+                            || (modParser.getASMSuperType() != null && modParser.isBaseMod(candidate.getRememberedBaseMods())));
                 }
             }
+            JarScanCache.store(candidate.getModContainer(), scanned);
         }
         catch (Exception e)
         {
@@ -107,4 +117,29 @@ public class JarDiscoverer implements ITypeDiscoverer
         return foundMods;
     }
 
+    private ASMModParser parse(ModCandidate candidate, ASMDataTable table, JarFile jar, ZipEntry ze, MetadataCollection mc, List<ModContainer> foundMods) throws IOException
+    {
+        ASMModParser modParser;
+        try
+        {
+            modParser = new ASMModParser(jar.getInputStream(ze));
+            candidate.addClassEntry(ze.getName());
+        }
+        catch (LoaderException e)
+        {
+            FMLLog.log(Level.ERROR, e, "There was a problem reading the entry %s in the jar %s - probably a corrupt zip", ze.getName(), candidate.getModContainer().getPath());
+            jar.close();
+            throw e;
+        }
+        modParser.validate();
+        modParser.sendToTable(table, candidate);
+        ModContainer container = ModContainerFactory.instance().build(modParser, candidate.getModContainer(), candidate);
+        if (container!=null)
+        {
+            table.addContainer(container);
+            foundMods.add(container);
+            container.bindMetadata(mc);
+        }
+        return modParser;
+    }
 }
@@ -0,0 +1,283 @@
+/*
+ * Forge Mod Loader
+ * Copyright (c) 2012-2013 cpw.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the GNU Lesser Public License v2.1
+ * which accompanies this distribution, and is available at
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+ *
+ * Contributors:
+ *     cpw - implementation
+ */
+
+package net.minecraftforge.fml.common.discovery;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.Loader;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Remembers what scanning a mod jar found, so an unchanged jar does not have every class parsed again on the next
+ * launch.
+ * <p>
+ * An entry lists the class files of the jar, and which of them have to be parsed because they carry annotations or may
+ * be ModLoader style mods. The other classes only need to be registered with their candidate. Entries are kept per jar
+ * and are only used when the path, size, modification time and SHA-1 of the jar all match. Entries of jars that no
+ * longer exist are deleted on the next launch. Set fml.ignoreScanCache to true to always scan.
+ */
+public class JarScanCache
+{
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".bin";
+    private static final boolean IGNORE = Boolean.parseBoolean(System.getProperty("fml.ignoreScanCache", "false"));
+
+    public static class Entry
+    {
+        private final List<String> classes = Lists.newArrayList();
+        private final List<Boolean> parse = Lists.newArrayList();
+
+        public void add(String className, boolean mustParse)
+        {
+            classes.add(className);
+            parse.add(mustParse);
+        }
+
+        public int size()
+        {
+            return classes.size();
+        }
+
+        /**
+         * @return The name of the class file entry, in jar order
+         */
+        public String getClassEntry(int index)
+        {
+            return classes.get(index);
+        }
+
+        public boolean mustParse(int index)
+        {
+            return parse.get(index);
+        }
+    }
+
+    /**
+     * @return The entry stored for the jar, or null if there is none or the jar changed since
+     */
+    public static Entry load(File jar)
+    {
+        if (IGNORE)
+        {
+            return null;
+        }
+        File file = file(jar);
+        if (!file.isFile())
+        {
+            return null;
+        }
+        try
+        {
+            ByteBuffer buf = mapIfValid(file, jar);
+            if (buf == null)
+            {
+                return null;
+            }
+            Entry entry = new Entry();
+            for (int i = buf.getInt(); i > 0; i--)
+            {
+                String className = readString(buf);
+                entry.add(className, buf.get() != 0);
+            }
+            return entry;
+        }
+        catch (Exception e)
+        {
+            FMLLog.log(Level.WARN, e, "Discarding the unreadable scan cache for %s", jar.getName());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the entries of jars that no longer exist, and those of older cache versions. Called once before mods are
+     * discovered, while no entry is mapped.
+     */
+    public static void prune()
+    {
+        if (IGNORE)
+        {
+            return;
+        }
+        File[] files = cacheDir().listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        for (File file : files)
+        {
+            if (!file.getName().endsWith(SUFFIX))
+            {
+                // Left behind by an interrupted store
+                file.delete();
+                continue;
+            }
+            String jar = null;
+            try
+            {
+                RandomAccessFile raf = new RandomAccessFile(file, "r");
+                try
+                {
+                    jar = raf.readInt() == VERSION ? readString(raf) : null;
+                }
+                finally
+                {
+                    raf.close();
+                }
+            }
+            catch (IOException e)
+            {
+                // Unreadable, delete it
+            }
+            if (jar == null || !new File(jar).isFile())
+            {
+                file.delete();
+            }
+        }
+    }
+
+    public static void store(File jar, Entry entry)
+    {
+        if (IGNORE)
+        {
+            return;
+        }
+        File file = file(jar);
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(VERSION);
+            writeString(out, jar.getAbsolutePath());
+            out.writeLong(jar.length());
+            out.writeLong(jar.lastModified());
+            byte[] hash = hash(jar);
+            out.writeInt(hash.length);
+            out.write(hash);
+            out.writeInt(entry.size());
+            for (int i = 0; i < entry.size(); i++)
+            {
+                writeString(out, entry.getClassEntry(i));
+                out.writeByte(entry.mustParse(i) ? 1 : 0);
+            }
+            out.close();
+
+            // Write aside and move into place, so a concurrent or interrupted launch never reads a partial entry
+            File tmp = new File(file.getPath() + ".tmp");
+            Files.createParentDirs(tmp);
+            Files.write(bytes.toByteArray(), tmp);
+            if (!tmp.renameTo(file) && (!file.delete() || !tmp.renameTo(file)))
+            {
+                tmp.delete();
+                FMLLog.warning("Unable to replace the scan cache for %s, it will be scanned again on every launch", jar.getName());
+            }
+        }
+        catch (IOException e)
+        {
+            FMLLog.log(Level.WARN, e, "Failed to cache the scan of %s", jar.getName());
+        }
+    }
+
+    private static File cacheDir()
+    {
+        return new File(Loader.instance().getConfigDir().getParentFile(), "modscancache");
+    }
+
+    private static File file(File jar)
+    {
+        String key = Hashing.sha1().hashString(jar.getAbsolutePath(), Charsets.UTF_8).toString().substring(0, 16);
+        return new File(cacheDir(), key + SUFFIX);
+    }
+
+    /**
+     * Reads and checks the header without a mapping, and only maps the class list of an entry that matches the jar. A
+     * mapped file can not be replaced or deleted on Windows until it is garbage collected, so a stale entry must never be
+     * mapped or {@link #store} could not replace it.
+     *
+     * @return The class list, or null if the entry is for another version of the jar
+     */
+    private static ByteBuffer mapIfValid(File file, File jar) throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            if (raf.readInt() != VERSION || !readString(raf).equals(jar.getAbsolutePath()) || raf.readLong() != jar.length() || raf.readLong() != jar.lastModified())
+            {
+                return null;
+            }
+            int length = raf.readInt();
+            if (length < 0 || length > 64)
+            {
+                throw new IOException("Invalid hash length " + length);
+            }
+            byte[] hash = new byte[length];
+            raf.readFully(hash);
+            if (!Arrays.equals(hash, hash(jar)))
+            {
+                return null;
+            }
+            FileChannel channel = raf.getChannel();
+            long start = raf.getFilePointer();
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, channel.size() - start);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static byte[] hash(File jar) throws IOException
+    {
+        return Files.hash(jar, Hashing.sha1()).asBytes();
+    }
+
+    private static String readString(ByteBuffer buf)
+    {
+        byte[] data = new byte[buf.getShort() & 0xFFFF];
+        buf.get(data);
+        return new String(data, Charsets.UTF_8);
+    }
+
+    private static String readString(RandomAccessFile raf) throws IOException
+    {
+        byte[] data = new byte[raf.readUnsignedShort()];
+        raf.readFully(data);
+        return new String(data, Charsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException
+    {
+        byte[] data = string.getBytes(Charsets.UTF_8);
+        if (data.length > 0xFFFF)
+        {
+            throw new IOException("Entry name too long: " + string.substring(0, 64));
+        }
+        out.writeShort(data.length);
+        out.write(data);
+    }
+}
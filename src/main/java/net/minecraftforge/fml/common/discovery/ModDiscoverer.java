@@ -14,6 +14,13 @@ package net.minecraftforge.fml.common.discovery;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,9 +38,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.ObjectArrays;
 
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+
 public class ModDiscoverer
 {
     private static Pattern zipJar = Pattern.compile("(.+).(zip|jar)$");
+    private static final int DISCOVERY_THREADS = Integer.getInteger("fml.discoveryThreads", Runtime.getRuntime().availableProcessors());
 
     private List<ModCandidate> candidates = Lists.newArrayList();
 
@@ -126,28 +136,87 @@ public class ModDiscoverer
     public List<ModContainer> identifyMods()
     {
         List<ModContainer> modList = Lists.newArrayList();
+        JarScanCache.prune();
 
-        for (ModCandidate candidate : candidates)
+        // Explore the candidates in parallel, each into a table of its own, then collect the results in candidate order
+        int threads = Math.min(candidates.size(), DISCOVERY_THREADS);
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads, new ThreadFactory()
         {
-            try
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable runnable)
             {
-                List<ModContainer> mods = candidate.explore(dataTable);
-                if (mods.isEmpty() && !candidate.isClasspath())
+                Thread thread = new Thread(runnable, "FML Mod Discovery Thread-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }) : null;
+        List<FutureTask<List<ModContainer>>> explorations = Lists.newArrayListWithCapacity(candidates.size());
+        List<ASMDataTable> tables = Lists.newArrayListWithCapacity(candidates.size());
+        try
+        {
+            for (final ModCandidate candidate : candidates)
+            {
+                final ASMDataTable table = new ASMDataTable();
+                FutureTask<List<ModContainer>> exploration = new FutureTask<List<ModContainer>>(new Callable<List<ModContainer>>()
+                {
+                    @Override
+                    public List<ModContainer> call() throws Exception
+                    {
+                        return candidate.explore(table);
+                    }
+                });
+                tables.add(table);
+                explorations.add(exploration);
+                if (pool != null)
                 {
-                    nonModLibs.add(candidate.getModContainer());
+                    pool.execute(exploration);
                 }
                 else
                 {
-                    modList.addAll(mods);
+                    exploration.run();
                 }
             }
-            catch (LoaderException le)
+
+            for (int i = 0; i < candidates.size(); i++)
             {
-                FMLLog.log(Level.WARN, le, "Identified a problem with the mod candidate %s, ignoring this source", candidate.getModContainer());
+                ModCandidate candidate = candidates.get(i);
+                try
+                {
+                    List<ModContainer> mods = getUninterruptibly(explorations.get(i));
+                    if (mods.isEmpty() && !candidate.isClasspath())
+                    {
+                        nonModLibs.add(candidate.getModContainer());
+                    }
+                    else
+                    {
+                        modList.addAll(mods);
+                    }
+                }
+                catch (ExecutionException e)
+                {
+                    if (e.getCause() instanceof LoaderException)
+                    {
+                        FMLLog.log(Level.WARN, e.getCause(), "Identified a problem with the mod candidate %s, ignoring this source", candidate.getModContainer());
+                    }
+                    else
+                    {
+                        Throwables.propagate(e.getCause());
+                    }
+                }
+                finally
+                {
+                    // Whatever a failed candidate found before failing is kept, as when exploring in sequence
+                    dataTable.merge(tables.get(i));
+                }
             }
-            catch (Throwable t)
+        }
+        finally
+        {
+            if (pool != null)
             {
-                Throwables.propagate(t);
+                pool.shutdownNow();
             }
         }
 
@@ -25,6 +25,8 @@ public class ASMEventHandler implements IEventListener
     private static final boolean GETCONTEXT = Boolean.parseBoolean(System.getProperty("fml.LogContext", "false"));
 
     private final IEventListener handler;
+    private final Object target;
+    private final Method method;
     private final SubscribeEvent subInfo;
     private ModContainer owner;
     private String readable;
@@ -32,6 +34,8 @@ public class ASMEventHandler implements IEventListener
     public ASMEventHandler(Object target, Method method, ModContainer owner) throws Exception
     {
         this.owner = owner;
+        this.target = target;
+        this.method = method;
         handler = (IEventListener)createWrapper(method).getConstructor(Object.class).newInstance(target);
         subInfo = method.getAnnotation(SubscribeEvent.class);
         readable = "ASM: " + target + " " + method.getName() + Type.getMethodDescriptor(method);
@@ -64,6 +68,31 @@ public class ASMEventHandler implements IEventListener
         return subInfo.priority();
     }
 
+    ModContainer getOwner()
+    {
+        return owner;
+    }
+
+    boolean isAsync()
+    {
+        return subInfo.async();
+    }
+
+    boolean receiveCanceled()
+    {
+        return subInfo.receiveCanceled();
+    }
+
+    Object getTarget()
+    {
+        return target;
+    }
+
+    Method getMethod()
+    {
+        return method;
+    }
+
     public Class<?> createWrapper(Method callback)
     {
         if (cache.containsKey(callback))
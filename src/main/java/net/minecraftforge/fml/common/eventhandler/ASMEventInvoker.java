@@ -0,0 +1,206 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+import static org.objectweb.asm.Opcodes.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.minecraftforge.fml.common.FMLLog;
+
+import org.apache.logging.log4j.Level;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates one listener that calls every listener of an event type on a bus in order.
+ *
+ * {@link ASMEventHandler}s are called directly on their target with the receiveCanceled check inlined,
+ * {@link EventPriority} phase markers become a plain setPhase call, anything else is called through {@link IEventListener}.
+ * If a listener throws, the generated code rethrows a {@link ListenerException} carrying the index of that listener.
+ */
+public class ASMEventInvoker
+{
+    // Keep the generated method well below the 64k bytecode limit
+    private static final int MAX_LISTENERS = 1024;
+    private static final boolean GETCONTEXT = Boolean.parseBoolean(System.getProperty("fml.LogContext", "false"));
+    private static final String LISTENER_DESC = Type.getInternalName(IEventListener.class);
+    private static final String INVOKE_DESC = Type.getMethodDescriptor(IEventListener.class.getDeclaredMethods()[0]);
+    private static final String EVENT_DESC = Type.getInternalName(Event.class);
+    private static final String PRIORITY_DESC = Type.getInternalName(EventPriority.class);
+    private static final String EXCEPTION_DESC = Type.getInternalName(ListenerException.class);
+    private static int IDs = 0;
+
+    /**
+     * Thrown by {@link ListenerList} dispatchers when a listener fails, the cause is the original throwable.
+     */
+    public static class ListenerException extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+        public final int index;
+
+        public ListenerException(int index, Throwable cause)
+        {
+            super(cause);
+            this.index = index;
+        }
+    }
+
+    /**
+     * @return A listener calling all of the given listeners in order, or null if they can not be inlined
+     */
+    static IEventListener create(IEventListener[] listeners)
+    {
+        if (GETCONTEXT || listeners.length > MAX_LISTENERS)
+        {
+            return null; // ASMEventHandler sets up the logging context per listener, keep calling it
+        }
+
+        try
+        {
+            return generate(listeners);
+        }
+        catch (Throwable t)
+        {
+            FMLLog.log(Level.DEBUG, t, "Unable to generate an event invoker, listeners will be called one at a time");
+            return null;
+        }
+    }
+
+    private static synchronized IEventListener generate(IEventListener[] listeners) throws Exception
+    {
+        String name = String.format("%s_%d", ASMEventInvoker.class.getName(), IDs++);
+        String desc = name.replace('.', '/');
+        Object[] fields = new Object[listeners.length];
+        String[] fieldTypes = new String[listeners.length];
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_6, ACC_PUBLIC | ACC_SUPER, desc, null, "java/lang/Object", new String[]{ LISTENER_DESC });
+        cw.visitSource(".dynamic", null);
+
+        for (int x = 0; x < listeners.length; x++)
+        {
+            if (listeners[x] instanceof ASMEventHandler)
+            {
+                ASMEventHandler handler = (ASMEventHandler)listeners[x];
+                if (!Modifier.isPublic(handler.getMethod().getDeclaringClass().getModifiers()))
+                {
+                    return null; // Only reachable through its own wrapper
+                }
+                fields[x] = handler.getTarget();
+                fieldTypes[x] = Type.getInternalName(handler.getMethod().getDeclaringClass());
+            }
+            else if (!(listeners[x] instanceof EventPriority))
+            {
+                fields[x] = listeners[x];
+                fieldTypes[x] = LISTENER_DESC;
+            }
+            if (fields[x] != null)
+            {
+                cw.visitField(ACC_PRIVATE | ACC_FINAL, "l" + x, "L" + fieldTypes[x] + ";", null, null).visitEnd();
+            }
+        }
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        for (int x = 0; x < listeners.length; x++)
+        {
+            if (fields[x] == null) continue;
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(x);
+            mv.visitInsn(AALOAD);
+            mv.visitTypeInsn(CHECKCAST, fieldTypes[x]);
+            mv.visitFieldInsn(PUTFIELD, desc, "l" + x, "L" + fieldTypes[x] + ";");
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // Local 2 holds the index of the listener being called for the exception handler
+        mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESC, null, null);
+        mv.visitCode();
+        Label start = new Label();
+        Label end = new Label();
+        Label handler = new Label();
+        mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 2);
+        mv.visitLabel(start);
+        for (int x = 0; x < listeners.length; x++)
+        {
+            mv.visitLdcInsn(x);
+            mv.visitVarInsn(ISTORE, 2);
+            if (listeners[x] instanceof EventPriority)
+            {
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitFieldInsn(GETSTATIC, PRIORITY_DESC, ((EventPriority)listeners[x]).name(), "L" + PRIORITY_DESC + ";");
+                mv.visitMethodInsn(INVOKEVIRTUAL, EVENT_DESC, "setPhase", "(L" + PRIORITY_DESC + ";)V", false);
+            }
+            else if (listeners[x] instanceof ASMEventHandler)
+            {
+                ASMEventHandler asm = (ASMEventHandler)listeners[x];
+                Method method = asm.getMethod();
+                Label skip = new Label();
+                if (!asm.receiveCanceled())
+                {
+                    // isCanceled is false for events that are not cancelable
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, EVENT_DESC, "isCanceled", "()Z", false);
+                    mv.visitJumpInsn(IFNE, skip);
+                }
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, desc, "l" + x, "L" + fieldTypes[x] + ";");
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(method.getParameterTypes()[0]));
+                mv.visitMethodInsn(INVOKEVIRTUAL, fieldTypes[x], method.getName(), Type.getMethodDescriptor(method), false);
+                int size = Type.getReturnType(method).getSize();
+                if (size > 0)
+                {
+                    mv.visitInsn(size == 2 ? POP2 : POP);
+                }
+                mv.visitLabel(skip);
+            }
+            else
+            {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, desc, "l" + x, "L" + LISTENER_DESC + ";");
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEINTERFACE, LISTENER_DESC, "invoke", INVOKE_DESC, true);
+            }
+        }
+        mv.visitLabel(end);
+        mv.visitInsn(RETURN);
+        mv.visitLabel(handler);
+        mv.visitVarInsn(ASTORE, 3);
+        mv.visitTypeInsn(NEW, EXCEPTION_DESC);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitMethodInsn(INVOKESPECIAL, EXCEPTION_DESC, "<init>", "(ILjava/lang/Throwable;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        // One loader per invoker, so replaced invokers can be unloaded
+        Class<?> cls = new InvokerClassLoader().define(name, cw.toByteArray());
+        return (IEventListener)cls.getConstructor(Object[].class).newInstance(new Object[]{ fields });
+    }
+
+    private static class InvokerClassLoader extends ClassLoader
+    {
+        private InvokerClassLoader()
+        {
+            super(InvokerClassLoader.class.getClassLoader());
+        }
+
+        public Class<?> define(String name, byte[] data)
+        {
+            return defineClass(name, data, 0, data.length);
+        }
+    }
+}
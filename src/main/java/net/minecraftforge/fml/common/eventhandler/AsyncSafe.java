@@ -0,0 +1,21 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a notification event that may be delivered off the thread that posted it, either through
+ * {@link EventBus#postAsync(Event)} or to subscribers declared with {@link SubscribeEvent#async()}.
+ *
+ * Such events must not be {@link Cancelable} or carry a result, and nothing may depend on what async
+ * listeners do with them. Async listeners may see the event after the poster has moved on, so they should only
+ * read from it.
+ */
+@Inherited
+@Retention(value = RUNTIME)
+@Target(value = TYPE)
+public @interface AsyncSafe{}
@@ -5,7 +5,9 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nonnull;
 
@@ -19,10 +21,18 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.MapMaker;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class EventBus implements IEventExceptionHandler
 {
     private static int maxID = 0;
+    private static final Map<Class<?>, ListenerList> eventLists = new ConcurrentHashMap<Class<?>, ListenerList>();
+    // Single thread, so async listeners see events in the order they were posted
+    private static final ListeningExecutorService asyncExecutor = MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Forge Async Event Thread").setDaemon(true).build()));
 
     private ConcurrentHashMap<Object, ArrayList<IEventListener>> listeners = new ConcurrentHashMap<Object, ArrayList<IEventListener>>();
     private Map<Object,ModContainer> listenerOwners = new MapMaker().weakKeys().weakValues().makeMap();
@@ -98,11 +108,20 @@ public class EventBus implements IEventExceptionHandler
     {
         try
         {
-            Constructor<?> ctr = eventType.getConstructor();
-            ctr.setAccessible(true);
-            Event event = (Event)ctr.newInstance();
-            ASMEventHandler listener = new ASMEventHandler(target, method, owner);
-            event.getListenerList().register(busID, listener.getPriority(), listener);
+            ASMEventHandler handler = new ASMEventHandler(target, method, owner);
+            IEventListener listener = handler;
+            if (handler.isAsync())
+            {
+                if (eventType.isAnnotationPresent(AsyncSafe.class))
+                {
+                    listener = new AsyncListener(handler);
+                }
+                else
+                {
+                    FMLLog.log(Level.WARN, "Method %s subscribes asynchronously to %s which is not @AsyncSafe, it will be called on the posting thread", method, eventType.getName());
+                }
+            }
+            getListenerList(eventType).register(busID, handler.getPriority(), listener);
 
             ArrayList<IEventListener> others = listeners.get(target);
             if (others == null)
@@ -129,23 +148,115 @@ public class EventBus implements IEventExceptionHandler
         }
     }
 
+    /**
+     * Allows hooks to skip creating an event nobody listens to.
+     *
+     * @return If any listener on this bus would receive an event of this type
+     */
+    public boolean hasListeners(Class<? extends Event> eventType)
+    {
+        try
+        {
+            return getListenerList(eventType).hasListeners(busID);
+        }
+        catch (Exception e)
+        {
+            return true; // Can not be instantiated here, let post sort it out
+        }
+    }
+
+    private static ListenerList getListenerList(Class<?> eventType) throws Exception
+    {
+        ListenerList list = eventLists.get(eventType);
+        if (list == null)
+        {
+            // The list is created by the first instance of the event
+            Constructor<?> ctr = eventType.getConstructor();
+            ctr.setAccessible(true);
+            list = ((Event)ctr.newInstance()).getListenerList();
+            eventLists.put(eventType, list);
+        }
+        return list;
+    }
+
     public boolean post(Event event)
     {
-        IEventListener[] listeners = event.getListenerList().getListeners(busID);
-        int index = 0;
+        ListenerList.Dispatcher dispatcher = event.getListenerList().getDispatcher(busID);
         try
         {
-            for (; index < listeners.length; index++)
+            dispatcher.invoke(event);
+        }
+        catch (ASMEventInvoker.ListenerException e)
+        {
+            exceptionHandler.handleException(this, event, dispatcher.listeners, e.index, e.getCause());
+            Throwables.propagate(e.getCause());
+        }
+        return (event.isCancelable() ? event.isCanceled() : false);
+    }
+
+    /**
+     * Posts an {@link AsyncSafe} event on the async event thread.
+     *
+     * @return The result of {@link #post(Event)} once all listeners have been called
+     */
+    public ListenableFuture<Boolean> postAsync(Event event)
+    {
+        Preconditions.checkArgument(event.getClass().isAnnotationPresent(AsyncSafe.class), "Event %s is not @AsyncSafe", event.getClass().getName());
+        final Event posted = copyForAsync(event);
+        return asyncExecutor.submit(new Callable<Boolean>()
+        {
+            @Override
+            public Boolean call()
             {
-                listeners[index].invoke(event);
+                return post(posted);
             }
+        });
+    }
+
+    private static Event copyForAsync(Event event)
+    {
+        return event instanceof IAsyncCopyable ? ((IAsyncCopyable)event).copyForAsync() : event;
+    }
+
+    /**
+     * Hands the event to a subscriber on the async event thread. Failures are reported to the exception handler there,
+     * the posting thread never sees them.
+     */
+    private class AsyncListener implements IEventListener
+    {
+        private final IEventListener listener;
+
+        private AsyncListener(IEventListener listener)
+        {
+            this.listener = listener;
         }
-        catch (Throwable throwable)
+
+        @Override
+        public void invoke(Event posted)
         {
-            exceptionHandler.handleException(this, event, listeners, index, throwable);
-            Throwables.propagate(throwable);
+            final Event event = copyForAsync(posted);
+            asyncExecutor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        listener.invoke(event);
+                    }
+                    catch (Throwable throwable)
+                    {
+                        exceptionHandler.handleException(EventBus.this, event, new IEventListener[]{ listener }, 0, throwable);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Async " + listener;
         }
-        return (event.isCancelable() ? event.isCanceled() : false);
     }
 
     @Override
@@ -0,0 +1,312 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.ModContainer;
+
+import org.apache.logging.log4j.Level;
+
+/**
+ * Opt-in timing of event listeners on every {@link EventBus}.
+ *
+ * While enabled, listener snapshots are rebuilt with every listener wrapped in a timing listener. Disabling rebuilds
+ * them without the wrappers, so the profiler costs nothing while it is off.
+ *
+ * Allocation tracking uses the per-thread allocation counter of the JVM where available. The bytes attributed to a
+ * listener also include what nested posts and the timing wrapper itself allocate, so treat them as an estimate.
+ *
+ * The JMX view is registered as net.minecraftforge:type=EventProfiler when the server starts, so profiling can be
+ * switched on from a JMX console as well as from the command.
+ */
+public class EventProfiler implements EventProfilerMBean
+{
+    private static final EventProfiler INSTANCE = new EventProfiler();
+
+    private volatile boolean enabled = false;
+    private volatile boolean trackAllocations = false;
+    private final ConcurrentMap<IEventListener, Stats> listenerStats = new ConcurrentHashMap<IEventListener, Stats>();
+    private final ConcurrentMap<Class<?>, Stats> eventStats = new ConcurrentHashMap<Class<?>, Stats>();
+    private boolean registered = false;
+    // Resolved on first use, the allocation counter is not part of every JVM
+    private ThreadMXBean threads;
+    private Method allocatedBytes;
+
+    private EventProfiler()
+    {
+    }
+
+    public static EventProfiler instance()
+    {
+        return INSTANCE;
+    }
+
+    public static class Stats
+    {
+        private final String name;
+        private final String owner;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Stats(String name, String owner)
+        {
+            this.name = name;
+            this.owner = owner;
+        }
+
+        private void record(long time, long allocated)
+        {
+            calls.incrementAndGet();
+            nanos.addAndGet(time);
+            if (allocated > 0)
+            {
+                bytes.addAndGet(allocated);
+            }
+        }
+
+        public String getName() { return name; }
+        public String getOwner() { return owner; }
+        public long getCalls() { return calls.get(); }
+        public long getNanos() { return nanos.get(); }
+        public long getBytes() { return bytes.get(); }
+
+        @Override
+        public String toString()
+        {
+            long calls = getCalls();
+            return String.format("%s [%s] calls: %d total: %.3f ms avg: %.3f us alloc: %d B", name, owner, calls,
+                    getNanos() / 1.0E6D, calls == 0 ? 0 : getNanos() / 1.0E3D / calls, getBytes());
+        }
+    }
+
+    private static final Comparator<Stats> SLOWEST_FIRST = new Comparator<Stats>()
+    {
+        @Override
+        public int compare(Stats a, Stats b)
+        {
+            long x = a.getNanos();
+            long y = b.getNanos();
+            return x < y ? 1 : (x == y ? 0 : -1);
+        }
+    };
+
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled)
+    {
+        if (this.enabled != enabled)
+        {
+            this.enabled = enabled;
+            ListenerList.rebuildAll();
+        }
+    }
+
+    @Override
+    public boolean isTrackingAllocations()
+    {
+        return trackAllocations;
+    }
+
+    @Override
+    public void setTrackingAllocations(boolean track)
+    {
+        this.trackAllocations = track && resolveAllocationCounter();
+    }
+
+    /**
+     * Registers the JMX view with the platform MBean server. Registering only adds an entry there, remote access still
+     * depends on how the JVM was started. Later calls do nothing.
+     */
+    public synchronized void registerMBean()
+    {
+        if (registered)
+        {
+            return;
+        }
+        registered = true;
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("net.minecraftforge:type=EventProfiler"));
+        }
+        catch (Exception e)
+        {
+            FMLLog.log(Level.DEBUG, e, "Unable to register the event profiler MBean");
+        }
+    }
+
+    private synchronized boolean resolveAllocationCounter()
+    {
+        if (allocatedBytes == null)
+        {
+            try
+            {
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+                Class<?> cls = Class.forName("com.sun.management.ThreadMXBean");
+                if (cls.isInstance(threads) && (Boolean)cls.getMethod("isThreadAllocatedMemorySupported").invoke(threads))
+                {
+                    this.threads = threads;
+                    this.allocatedBytes = cls.getMethod("getThreadAllocatedBytes", long.class);
+                }
+            }
+            catch (Throwable t)
+            {
+                FMLLog.log(Level.DEBUG, t, "Allocation tracking is not supported by this JVM");
+            }
+        }
+        return allocatedBytes != null;
+    }
+
+    private long getAllocatedBytes(long thread)
+    {
+        try
+        {
+            return (Long)allocatedBytes.invoke(threads, thread);
+        }
+        catch (Exception e)
+        {
+            trackAllocations = false;
+            return 0;
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        listenerStats.clear();
+        eventStats.clear();
+    }
+
+    public List<Stats> getListenerStats()
+    {
+        return sorted(listenerStats.values());
+    }
+
+    public List<Stats> getEventStats()
+    {
+        return sorted(eventStats.values());
+    }
+
+    @Override
+    public String[] getListenerReport()
+    {
+        return report(getListenerStats());
+    }
+
+    @Override
+    public String[] getEventReport()
+    {
+        return report(getEventStats());
+    }
+
+    private static List<Stats> sorted(Iterable<Stats> values)
+    {
+        List<Stats> ret = new ArrayList<Stats>();
+        for (Stats stats : values)
+        {
+            ret.add(stats);
+        }
+        Collections.sort(ret, SLOWEST_FIRST);
+        return ret;
+    }
+
+    private static String[] report(List<Stats> stats)
+    {
+        String[] ret = new String[stats.size()];
+        for (int x = 0; x < ret.length; x++)
+        {
+            ret[x] = stats.get(x).toString();
+        }
+        return ret;
+    }
+
+    /**
+     * Wraps every listener of a snapshot in a timing listener, the phase markers are kept as they are.
+     */
+    IEventListener[] wrap(IEventListener[] listeners)
+    {
+        IEventListener[] ret = new IEventListener[listeners.length];
+        for (int x = 0; x < listeners.length; x++)
+        {
+            ret[x] = listeners[x] instanceof EventPriority ? listeners[x] : new ProfiledListener(listeners[x]);
+        }
+        return ret;
+    }
+
+    private Stats getListenerStats(IEventListener listener)
+    {
+        Stats stats = listenerStats.get(listener);
+        if (stats == null)
+        {
+            ModContainer owner = listener instanceof ASMEventHandler ? ((ASMEventHandler)listener).getOwner() : null;
+            Stats created = new Stats(listener.toString(), owner == null ? "unknown" : owner.getModId());
+            stats = listenerStats.putIfAbsent(listener, created);
+            if (stats == null) stats = created;
+        }
+        return stats;
+    }
+
+    private Stats getEventStats(Class<?> event)
+    {
+        Stats stats = eventStats.get(event);
+        if (stats == null)
+        {
+            Stats created = new Stats(event.getName(), "all");
+            stats = eventStats.putIfAbsent(event, created);
+            if (stats == null) stats = created;
+        }
+        return stats;
+    }
+
+    private class ProfiledListener implements IEventListener
+    {
+        private final IEventListener listener;
+
+        private ProfiledListener(IEventListener listener)
+        {
+            this.listener = listener;
+        }
+
+        @Override
+        public void invoke(Event event)
+        {
+            boolean alloc = trackAllocations;
+            long thread = alloc ? Thread.currentThread().getId() : 0;
+            long bytes = alloc ? getAllocatedBytes(thread) : 0;
+            long start = System.nanoTime();
+            try
+            {
+                listener.invoke(event);
+            }
+            finally
+            {
+                long time = System.nanoTime() - start;
+                long allocated = alloc ? getAllocatedBytes(thread) - bytes : 0;
+                getListenerStats(listener).record(time, allocated);
+                getEventStats(event.getClass()).record(time, allocated);
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return listener.toString();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+/**
+ * JMX view of the {@link EventProfiler}, registered as net.minecraftforge:type=EventProfiler once profiling is first enabled
+ */
+public interface EventProfilerMBean
+{
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    boolean isTrackingAllocations();
+
+    void setTrackingAllocations(boolean track);
+
+    void reset();
+
+    /**
+     * @return One line per listener, slowest first
+     */
+    String[] getListenerReport();
+
+    /**
+     * @return One line per event type, slowest first
+     */
+    String[] getEventReport();
+}
@@ -0,0 +1,13 @@
+package net.minecraftforge.fml.common.eventhandler;
+
+/**
+ * An {@link AsyncSafe} event carrying mutable data the poster keeps using. Async listeners get a copy, taken on the
+ * posting thread when the event reaches them, instead of the posted event.
+ */
+public interface IAsyncCopyable
+{
+    /**
+     * @return A copy of the event whose data async listeners can read while the poster moves on
+     */
+    Event copyForAsync();
+}
@@ -6,6 +6,9 @@ import com.google.common.collect.ImmutableList;
 
 public class ListenerList
 {
+    // Posts of an unchanged listener array before it gets a generated invoker
+    private static final int INVOKER_THRESHOLD = 1000;
+    private static final Object LOCK = new Object();
     private static ImmutableList<ListenerList> allLists = ImmutableList.of();
     private static int maxSize = 0;
 
@@ -78,6 +81,23 @@ public class ListenerList
         lists = newList;
     }
 
+    /**
+     * Rebuilds the listener snapshot of every event on every bus, used when profiling is toggled.
+     */
+    static void rebuildAll()
+    {
+        synchronized (LOCK)
+        {
+            for (ListenerList list : allLists)
+            {
+                for (ListenerListInst inst : list.lists)
+                {
+                    inst.buildCache();
+                }
+            }
+        }
+    }
+
     public static void clearBusID(int id)
     {
         for (ListenerList list : allLists)
@@ -96,6 +116,19 @@ public class ListenerList
         return lists[id].getListeners();
     }
 
+    /**
+     * @return If any listener, including those of parent events, is registered on the given bus
+     */
+    public boolean hasListeners(int id)
+    {
+        return lists[id].getListeners().length > 0;
+    }
+
+    Dispatcher getDispatcher(int id)
+    {
+        return lists[id].dispatcher;
+    }
+
     public void register(int id, EventPriority priority, IEventListener listener)
     {
         lists[id].register(priority, listener);
@@ -114,12 +147,68 @@ public class ListenerList
         }
     }
 
+    /**
+     * Immutable snapshot of the listeners of an event type on one bus. Replaced as a whole whenever a listener
+     * is added or removed, so posting never has to check for changes.
+     */
+    static final class Dispatcher
+    {
+        final IEventListener[] listeners;
+        private volatile IEventListener invoker;
+        private boolean compiled;
+        private int posts;
+
+        Dispatcher(IEventListener[] listeners)
+        {
+            this.listeners = listeners;
+        }
+
+        /**
+         * Calls all listeners in order.
+         *
+         * @throws ASMEventInvoker.ListenerException wrapping whatever a listener threw
+         */
+        void invoke(Event event)
+        {
+            IEventListener invoker = this.invoker;
+            if (invoker != null)
+            {
+                invoker.invoke(event);
+                return;
+            }
+            // The counter is only a heuristic, lost updates just delay the invoker
+            if (!compiled && ++posts >= INVOKER_THRESHOLD)
+            {
+                compiled = true;
+                this.invoker = invoker = ASMEventInvoker.create(listeners);
+                if (invoker != null)
+                {
+                    invoker.invoke(event);
+                    return;
+                }
+            }
+
+            int index = 0;
+            try
+            {
+                for (; index < listeners.length; index++)
+                {
+                    listeners[index].invoke(event);
+                }
+            }
+            catch (Throwable throwable)
+            {
+                throw new ASMEventInvoker.ListenerException(index, throwable);
+            }
+        }
+    }
+
     private class ListenerListInst
     {
-        private boolean rebuild = true;
-        private IEventListener[] listeners;
+        private volatile Dispatcher dispatcher;
         private ArrayList<ArrayList<IEventListener>> priorities;
         private ListenerListInst parent;
+        private List<ListenerListInst> children = new ArrayList<ListenerListInst>();
 
         private ListenerListInst()
         {
@@ -130,23 +219,37 @@ public class ListenerList
             {
                 priorities.add(new ArrayList<IEventListener>());
             }
+            buildCache();
         }
 
         public void dispose()
         {
-            for (ArrayList<IEventListener> listeners : priorities)
+            synchronized (LOCK)
             {
-                listeners.clear();
+                for (ArrayList<IEventListener> listeners : priorities)
+                {
+                    listeners.clear();
+                }
+                priorities.clear();
+                if (parent != null)
+                {
+                    parent.children.remove(this);
+                }
+                parent = null;
+                children.clear();
+                dispatcher = new Dispatcher(new IEventListener[0]);
             }
-            priorities.clear();
-            parent = null;
-            listeners = null;
         }
 
         private ListenerListInst(ListenerListInst parent)
         {
             this();
             this.parent = parent;
+            synchronized (LOCK)
+            {
+                parent.children.add(this);
+                buildCache();
+            }
         }
 
         /**
@@ -174,31 +277,18 @@ public class ListenerList
          *
          * List is returned in proper priority order.
          *
-         * Automatically rebuilds the internal Array cache if its information is out of date.
-         *
          * @return Array containing listeners
          */
         public IEventListener[] getListeners()
         {
-            if (shouldRebuild()) buildCache();
-            return listeners;
-        }
-
-        protected boolean shouldRebuild()
-        {
-            return rebuild || (parent != null && parent.shouldRebuild());
+            return dispatcher.listeners;
         }
 
         /**
-         * Rebuild the local Array of listeners, returns early if there is no work to do.
+         * Rebuild the local Array of listeners and those of all child events, which include ours.
          */
         private void buildCache()
         {
-            if(parent != null && parent.shouldRebuild())
-            {
-                parent.buildCache();
-            }
-
             ArrayList<IEventListener> ret = new ArrayList<IEventListener>();
             for (EventPriority value : EventPriority.values())
             {
@@ -209,23 +299,36 @@ public class ListenerList
                     ret.addAll(listeners);
                 }
             }
-            listeners = ret.toArray(new IEventListener[ret.size()]);
-            rebuild = false;
+            IEventListener[] listeners = ret.toArray(new IEventListener[ret.size()]);
+            dispatcher = new Dispatcher(EventProfiler.instance().isEnabled() ? EventProfiler.instance().wrap(listeners) : listeners);
+
+            for (ListenerListInst child : children)
+            {
+                child.buildCache();
+            }
         }
 
         public void register(EventPriority priority, IEventListener listener)
         {
-            priorities.get(priority.ordinal()).add(listener);
-            rebuild = true;
+            synchronized (LOCK)
+            {
+                priorities.get(priority.ordinal()).add(listener);
+                buildCache();
+            }
         }
 
         public void unregister(IEventListener listener)
         {
-            for(ArrayList<IEventListener> list : priorities)
+            synchronized (LOCK)
             {
-                if (list.remove(listener))
+                boolean changed = false;
+                for(ArrayList<IEventListener> list : priorities)
+                {
+                    changed |= list.remove(listener);
+                }
+                if (changed)
                 {
-                    rebuild = true;
+                    buildCache();
                 }
             }
         }
@@ -12,4 +12,10 @@ public @interface SubscribeEvent
 {
     public EventPriority priority() default EventPriority.NORMAL;
     public boolean receiveCanceled() default false;
+
+    /**
+     * Deliver the event on the async event thread instead of the posting thread. Only honored for events marked
+     * {@link AsyncSafe}, others are delivered synchronously.
+     */
+    public boolean async() default false;
 }
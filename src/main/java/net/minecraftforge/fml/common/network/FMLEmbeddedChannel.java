@@ -53,6 +53,35 @@ public class FMLEmbeddedChannel extends EmbeddedChannel {
         return pkt;
     }
 
+    /**
+     * Queues the messages this server side channel sends until the end of the server tick, where all messages queued for a
+     * connection are written as a single bundle packet. Clients that do not understand bundles still get every message
+     * on its own, right away.
+     *
+     * @param batching If outbound messages should be batched
+     */
+    public void setBatching(boolean batching)
+    {
+        attr(FMLOutboundHandler.FML_BATCHING).set(batching);
+    }
+
+    public boolean isBatching()
+    {
+        Boolean batching = attr(FMLOutboundHandler.FML_BATCHING).get();
+        return batching != null && batching.booleanValue();
+    }
+
+    /**
+     * Sets the coalescing key of the next message written to this channel. While batching, a queued message of this
+     * channel with an equal key for the same connection is dropped in favour of the new one. The key is cleared by the write.
+     *
+     * @param key The coalescing key, null if the message should never replace another
+     */
+    public void setCoalescingKey(Object key)
+    {
+        attr(FMLOutboundHandler.FML_COALESCINGKEY).set(key);
+    }
+
     public String findChannelHandlerNameForType(Class<? extends ChannelHandler> type)
     {
         String targetName = null;
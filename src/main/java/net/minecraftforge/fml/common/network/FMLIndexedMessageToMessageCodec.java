@@ -22,6 +22,8 @@ import org.apache.logging.log4j.Level;
 public abstract class FMLIndexedMessageToMessageCodec<A> extends MessageToMessageCodec<FMLProxyPacket, A> {
     private TByteObjectHashMap<Class<? extends A>> discriminators = new TByteObjectHashMap<Class<? extends A>>();
     private TObjectByteHashMap<Class<? extends A>> types = new TObjectByteHashMap<Class<? extends A>>();
+    // Last encoded size per discriminator, so buffers start out big enough and never have to grow
+    private final int[] sizeHints = new int[256];
 
     /**
      * Make this accessible to subclasses
@@ -47,12 +49,15 @@ public abstract class FMLIndexedMessageToMessageCodec<A> extends MessageToMessag
     @Override
     protected final void encode(ChannelHandlerContext ctx, A msg, List<Object> out) throws Exception
     {
-        PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
         @SuppressWarnings("unchecked") // Stupid unnecessary cast I can't seem to kill
         Class<? extends A> clazz = (Class<? extends A>) msg.getClass();
         byte discriminator = types.get(clazz);
+        // Not pooled, proxy packets are never released as they may be sent to any number of players
+        int sizeHint = sizeHints[discriminator & 0xFF];
+        PacketBuffer buffer = new PacketBuffer(sizeHint > 0 ? Unpooled.buffer(sizeHint) : Unpooled.buffer());
         buffer.writeByte(discriminator);
         encodeInto(ctx, msg, buffer);
+        sizeHints[discriminator & 0xFF] = buffer.writerIndex();
         FMLProxyPacket proxy = new FMLProxyPacket(buffer/*.copy()*/, ctx.channel().attr(NetworkRegistry.FML_CHANNEL).get());
         WeakReference<FMLProxyPacket> ref = ctx.attr(INBOUNDPACKETTRACKER).get().get();
         FMLProxyPacket old = ref == null ? null : ref.get();
@@ -69,7 +74,8 @@ public abstract class FMLIndexedMessageToMessageCodec<A> extends MessageToMessag
     protected final void decode(ChannelHandlerContext ctx, FMLProxyPacket msg, List<Object> out) throws Exception
     {
         testMessageValidity(msg);
-        ByteBuf payload = msg.payload().copy();
+        // The payload is never written to once received, decode from a view instead of a copy
+        ByteBuf payload = msg.payload().slice();
         byte discriminator = payload.readByte();
         Class<? extends A> clazz = discriminators.get(discriminator);
         if(clazz == null)
@@ -11,6 +11,7 @@ import net.minecraft.network.play.INetHandlerPlayServer;
 import net.minecraftforge.fml.common.eventhandler.Event;
 import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.common.eventhandler.AsyncSafe;
 
 public class FMLNetworkEvent<T extends INetHandler> extends Event {
     public final T handler;
@@ -32,6 +33,7 @@ public class FMLNetworkEvent<T extends INetHandler> extends Event {
     /**
      * Fired at the client when a client connects to a server
      */
+    @AsyncSafe
     public static class ClientConnectedToServerEvent extends FMLNetworkEvent<INetHandlerPlayClient> {
         public final boolean isLocal;
         public final String connectionType;
@@ -49,6 +51,7 @@ public class FMLNetworkEvent<T extends INetHandler> extends Event {
      * @author cpw
      *
      */
+    @AsyncSafe
     public static class ServerConnectionFromClientEvent extends FMLNetworkEvent<INetHandlerPlayServer> {
         public final boolean isLocal;
         public ServerConnectionFromClientEvent(NetworkManager manager)
@@ -63,6 +66,7 @@ public class FMLNetworkEvent<T extends INetHandler> extends Event {
      * @author cpw
      *
      */
+    @AsyncSafe
     public static class ServerDisconnectionFromClientEvent extends FMLNetworkEvent<INetHandlerPlayServer> {
         public ServerDisconnectionFromClientEvent(NetworkManager manager)
         {
@@ -75,6 +79,7 @@ public class FMLNetworkEvent<T extends INetHandler> extends Event {
      * @author cpw
      *
      */
+    @AsyncSafe
     public static class ClientDisconnectionFromServerEvent extends FMLNetworkEvent<INetHandlerPlayClient> {
         public ClientDisconnectionFromServerEvent(NetworkManager manager)
         {
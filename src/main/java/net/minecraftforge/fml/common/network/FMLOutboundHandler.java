@@ -1,5 +1,6 @@
 package net.minecraftforge.fml.common.network;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
@@ -8,8 +9,13 @@ import io.netty.util.AttributeKey;
 
 import java.util.List;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.NetworkManager;
+import net.minecraft.server.management.PlayerManager;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import net.minecraftforge.fml.common.network.handshake.NetworkDispatcher;
@@ -23,6 +29,8 @@ import com.google.common.collect.Sets;
 public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
     public static final AttributeKey<OutboundTarget> FML_MESSAGETARGET = AttributeKey.valueOf("fml:outboundTarget");
     public static final AttributeKey<Object> FML_MESSAGETARGETARGS = AttributeKey.valueOf("fml:outboundTargetArgs");
+    public static final AttributeKey<Boolean> FML_BATCHING = AttributeKey.valueOf("fml:batching");
+    public static final AttributeKey<Object> FML_COALESCINGKEY = AttributeKey.valueOf("fml:coalescingKey");
     public enum OutboundTarget {
         /**
          * The packet is sent nowhere. It will be on the {@link EmbeddedChannel#outboundMessages()} Queue.
@@ -156,11 +164,16 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
             {
                 int dimension = (Integer)args;
                 ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.<NetworkDispatcher>builder();
-                for (EntityPlayerMP player : (List<EntityPlayerMP>)FMLCommonHandler.instance().getMinecraftServerInstance().getConfigurationManager().playerEntityList)
+                WorldServer world = DimensionManager.getWorld(dimension);
+                if (world == null)
+                {
+                    return builder.build();
+                }
+                for (EntityPlayer player : (List<EntityPlayer>)world.playerEntities)
                 {
-                    if (dimension == player.dimension)
+                    if (player instanceof EntityPlayerMP && dimension == player.dimension)
                     {
-                        NetworkDispatcher dispatcher = player.playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
+                        NetworkDispatcher dispatcher = ((EntityPlayerMP)player).playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
                         // Null dispatchers may exist for fake players - skip them
                         if (dispatcher != null) builder.add(dispatcher);
                     }
@@ -190,9 +203,26 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
             {
                 TargetPoint tp = (TargetPoint)args;
                 ImmutableList.Builder<NetworkDispatcher> builder = ImmutableList.<NetworkDispatcher>builder();
-                for (EntityPlayerMP player : (List<EntityPlayerMP>)FMLCommonHandler.instance().getMinecraftServerInstance().getConfigurationManager().playerEntityList)
+                WorldServer world = DimensionManager.getWorld(tp.dimension);
+                if (world == null)
                 {
-                    if (player.dimension == tp.dimension)
+                    return builder.build();
+                }
+                // Everyone in range watches the chunk of the point as long as the range, plus the 8 blocks a player may move
+                // before the player manager catches up, stays within the view radius. Otherwise check the whole dimension.
+                PlayerManager playerManager = world.getPlayerManager();
+                List<? extends EntityPlayer> candidates;
+                if (((int)(tp.range + 8) >> 4) + 1 <= playerManager.getViewRadius())
+                {
+                    candidates = playerManager.getPlayersWatchingChunk(MathHelper.floor_double(tp.x) >> 4, MathHelper.floor_double(tp.z) >> 4);
+                }
+                else
+                {
+                    candidates = (List<EntityPlayer>)world.playerEntities;
+                }
+                for (EntityPlayer player : candidates)
+                {
+                    if (player instanceof EntityPlayerMP && player.dimension == tp.dimension)
                     {
                         double d4 = tp.x - player.posX;
                         double d5 = tp.y - player.posY;
@@ -200,7 +230,7 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
 
                         if (d4 * d4 + d5 * d5 + d6 * d6 < tp.range * tp.range)
                         {
-                            NetworkDispatcher dispatcher = player.playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
+                            NetworkDispatcher dispatcher = ((EntityPlayerMP)player).playerNetServerHandler.netManager.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
                             if (dispatcher != null) builder.add(dispatcher);
                         }
                     }
@@ -246,6 +276,8 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
         FMLProxyPacket pkt = (FMLProxyPacket) msg;
         OutboundTarget outboundTarget;
         Object args = null;
+        // The key only applies to the message it was set for
+        Object coalescingKey = ctx.channel().attr(FML_COALESCINGKEY).getAndSet(null);
         NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
         // INTERNAL message callback - let it pass out
         if (dispatcher != null)
@@ -278,6 +310,35 @@ public class FMLOutboundHandler extends ChannelOutboundHandlerAdapter {
             ctx.write(msg, promise);
             return;
         }
+        Boolean batching = ctx.channel().attr(FML_BATCHING).get();
+        if (batching != null && batching.booleanValue() && channelSide == Side.SERVER)
+        {
+            for (NetworkDispatcher targetDispatcher : dispatchers)
+            {
+                targetDispatcher.sendBatched(pkt, coalescingKey);
+            }
+            return;
+        }
+        if (dispatchers.size() > 1 && channelSide == Side.SERVER)
+        {
+            // Broadcast, serialize once and share the bytes between all connections
+            List<ByteBuf> encoded = pkt.toEncodedS3FPackets();
+            try
+            {
+                for (NetworkDispatcher targetDispatcher : dispatchers)
+                {
+                    targetDispatcher.sendEncoded(encoded, pkt);
+                }
+            }
+            finally
+            {
+                for (ByteBuf buf : encoded)
+                {
+                    buf.release();
+                }
+            }
+            return;
+        }
         for (NetworkDispatcher targetDispatcher : dispatchers)
         {
             targetDispatcher.sendProxy((FMLProxyPacket) msg);
@@ -29,6 +29,11 @@ public class ChannelRegistrationHandler extends SimpleChannelInboundHandler<FMLP
             String channels = new String(data,Charsets.UTF_8);
             String[] split = channels.split("\0");
             Set<String> channelSet = ImmutableSet.copyOf(split);
+            NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
+            if (dispatcher != null && channelSet.contains(NetworkDispatcher.BUNDLE_CHANNEL))
+            {
+                dispatcher.setRemoteBundles(msg.channel().equals("REGISTER"));
+            }
             FMLCommonHandler.instance().fireNetRegistrationEvent(manager, channelSet, msg.channel(), side);
         }
         else
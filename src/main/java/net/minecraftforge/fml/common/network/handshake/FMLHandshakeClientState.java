@@ -3,6 +3,7 @@ package net.minecraftforge.fml.common.network.handshake;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 
+import java.io.IOException;
 import java.util.List;
 
 import net.minecraftforge.fml.common.FMLLog;
@@ -14,6 +15,8 @@ import net.minecraftforge.fml.common.network.internal.FMLNetworkHandler;
 import net.minecraftforge.fml.common.registry.PersistentRegistryManager;
 import net.minecraftforge.fml.relauncher.Side;
 
+import org.apache.logging.log4j.Level;
+
 /**
  * Packet handshake sequence manager- client side (responding to remote server)
  *
@@ -60,7 +63,9 @@ enum FMLHandshakeClientState implements IHandshakeState<FMLHandshakeClientState>
                 NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
                 dispatcher.setOverrideDimension(serverHelloPacket.overrideDim());
             }
-            ctx.writeAndFlush(new FMLHandshakeMessage.ClientHello()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            // Servers before protocol 3 do not expect the cached registry snapshots
+            long[] cachedRegistries = serverHelloPacket.protocolVersion() > 2 ? RegistrySnapshotCache.cachedHashes() : null;
+            ctx.writeAndFlush(new FMLHandshakeMessage.ClientHello(cachedRegistries)).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
             ctx.writeAndFlush(new FMLHandshakeMessage.ModList(Loader.instance().getActiveModList())).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
             return WAITINGSERVERDATA;
         }
@@ -94,27 +99,47 @@ enum FMLHandshakeClientState implements IHandshakeState<FMLHandshakeClientState>
         @Override
         public FMLHandshakeClientState accept(ChannelHandlerContext ctx, FMLHandshakeMessage msg)
         {
-            FMLHandshakeMessage.RegistryData pkt = (FMLHandshakeMessage.RegistryData)msg;
-            PersistentRegistryManager.GameDataSnapshot snap = ctx.channel().attr(NetworkDispatcher.FML_GAMEDATA_SNAPSHOT).get();
-            if (snap == null)
+            PersistentRegistryManager.GameDataSnapshot snap;
+            if (msg instanceof FMLHandshakeMessage.RegistrySync)
             {
-                snap = new PersistentRegistryManager.GameDataSnapshot();
-                ctx.channel().attr(NetworkDispatcher.FML_GAMEDATA_SNAPSHOT).set(snap);
+                FMLHandshakeMessage.RegistrySync sync = (FMLHandshakeMessage.RegistrySync)msg;
+                try
+                {
+                    snap = RegistrySnapshotCache.read(sync);
+                }
+                catch (IOException e)
+                {
+                    NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
+                    dispatcher.rejectHandshake(e.getMessage());
+                    FMLLog.log(Level.ERROR, e, "Failed to read the registry snapshot %016x sent by the server", sync.getHash());
+                    return ERROR;
+                }
+                FMLLog.fine("Received Mod Registry snapshot %016x, mode %d, %d bytes", sync.getHash(), sync.getMode(), sync.getData().length);
             }
+            else
+            {
+                FMLHandshakeMessage.RegistryData pkt = (FMLHandshakeMessage.RegistryData)msg;
+                snap = ctx.channel().attr(NetworkDispatcher.FML_GAMEDATA_SNAPSHOT).get();
+                if (snap == null)
+                {
+                    snap = new PersistentRegistryManager.GameDataSnapshot();
+                    ctx.channel().attr(NetworkDispatcher.FML_GAMEDATA_SNAPSHOT).set(snap);
+                }
 
-            PersistentRegistryManager.GameDataSnapshot.Entry entry = new PersistentRegistryManager.GameDataSnapshot.Entry();
-            entry.ids.putAll(pkt.getIdMap());
-            entry.substitutions.addAll(pkt.getSubstitutions());
-            entry.dummied.addAll(pkt.getDummied());
-            snap.entries.put(pkt.getName(), entry);
+                PersistentRegistryManager.GameDataSnapshot.Entry entry = new PersistentRegistryManager.GameDataSnapshot.Entry();
+                entry.ids.putAll(pkt.getIdMap());
+                entry.substitutions.addAll(pkt.getSubstitutions());
+                entry.dummied.addAll(pkt.getDummied());
+                snap.entries.put(pkt.getName(), entry);
 
-            if (pkt.hasMore())
-            {
-                FMLLog.fine("Received Mod Registry mapping for %s: %d IDs %d subs %d dummied", pkt.getName(), entry.ids.size(), entry.substitutions.size(), entry.dummied.size());
-                return WAITINGSERVERCOMPLETE;
-            }
+                if (pkt.hasMore())
+                {
+                    FMLLog.fine("Received Mod Registry mapping for %s: %d IDs %d subs %d dummied", pkt.getName(), entry.ids.size(), entry.substitutions.size(), entry.dummied.size());
+                    return WAITINGSERVERCOMPLETE;
+                }
 
-            ctx.channel().attr(NetworkDispatcher.FML_GAMEDATA_SNAPSHOT).remove();
+                ctx.channel().attr(NetworkDispatcher.FML_GAMEDATA_SNAPSHOT).remove();
+            }
 
             List<String> locallyMissing = PersistentRegistryManager.injectSnapshot(snap, false, false);
             if (!locallyMissing.isEmpty())
@@ -27,7 +27,7 @@ import com.google.common.collect.Sets;
 public abstract class FMLHandshakeMessage {
     public static FMLProxyPacket makeCustomChannelRegistration(Set<String> channels)
     {
-        String salutation = Joiner.on('\0').join(Iterables.concat(Arrays.asList("FML|HS","FML", "FML|MP"),channels));
+        String salutation = Joiner.on('\0').join(Iterables.concat(Arrays.asList("FML|HS","FML", "FML|MP", NetworkDispatcher.BUNDLE_CHANNEL),channels));
         FMLProxyPacket proxy = new FMLProxyPacket(new PacketBuffer(Unpooled.wrappedBuffer(salutation.getBytes(Charsets.UTF_8))), "REGISTER");
         return proxy;
     }
@@ -77,22 +77,61 @@ public abstract class FMLHandshakeMessage {
     }
     public static class ClientHello extends FMLHandshakeMessage {
         private byte serverProtocolVersion;
+        private long[] cachedRegistries;
+        public ClientHello()
+        {
+            // noargs for the proto
+        }
+        /**
+         * @param cachedRegistries Hashes of the registry snapshots the client has cached, newest first. Null for servers
+         * older than protocol 3, they do not expect the list.
+         */
+        public ClientHello(long[] cachedRegistries)
+        {
+            this.cachedRegistries = cachedRegistries;
+        }
+
         @Override
         public void toBytes(ByteBuf buffer)
         {
             buffer.writeByte(NetworkRegistry.FML_PROTOCOL);
+            if (cachedRegistries != null)
+            {
+                ByteBufUtils.writeVarInt(buffer, cachedRegistries.length, 1);
+                for (long hash : cachedRegistries)
+                {
+                    buffer.writeLong(hash);
+                }
+            }
         }
 
         @Override
         public void fromBytes(ByteBuf buffer)
         {
             serverProtocolVersion = buffer.readByte();
+            // Registry snapshot cache
+            if (serverProtocolVersion > 2)
+            {
+                cachedRegistries = new long[ByteBufUtils.readVarInt(buffer, 1)];
+                for (int i = 0; i < cachedRegistries.length; i++)
+                {
+                    cachedRegistries[i] = buffer.readLong();
+                }
+            }
         }
 
         public byte protocolVersion()
         {
             return serverProtocolVersion;
         }
+
+        /**
+         * @return The hashes of the registry snapshots cached by the client, or null if it does not cache them
+         */
+        public long[] cachedRegistries()
+        {
+            return cachedRegistries;
+        }
     }
     public static class ModList extends FMLHandshakeMessage {
         public ModList()
@@ -256,6 +295,95 @@ public abstract class FMLHandshakeMessage {
             return super.toString(side) + ":"+ids.size()+" mappings";
         }
     }
+    /**
+     * All registries in one message, replaces the {@link RegistryData} messages for clients that cache registry snapshots.
+     * See {@link RegistrySnapshotCache} for the encoding of the data.
+     */
+    public static class RegistrySync extends FMLHandshakeMessage
+    {
+        /**
+         * The client has the snapshot cached, no data is sent
+         */
+        public static final byte CACHED = 0;
+        /**
+         * The data is the complete snapshot
+         */
+        public static final byte FULL = 1;
+        /**
+         * The data is a delta against the cached base snapshot
+         */
+        public static final byte DELTA = 2;
+
+        private byte mode;
+        private long hash;
+        private long base;
+        private byte[] data;
+
+        public RegistrySync()
+        {
+
+        }
+
+        public RegistrySync(byte mode, long hash, long base, byte[] data)
+        {
+            this.mode = mode;
+            this.hash = hash;
+            this.base = base;
+            this.data = data;
+        }
+
+        @Override
+        public void fromBytes(ByteBuf buffer)
+        {
+            mode = buffer.readByte();
+            hash = buffer.readLong();
+            if (mode == DELTA)
+            {
+                base = buffer.readLong();
+            }
+            data = new byte[mode == CACHED ? 0 : ByteBufUtils.readVarInt(buffer, 5)];
+            buffer.readBytes(data);
+        }
+
+        @Override
+        public void toBytes(ByteBuf buffer)
+        {
+            buffer.writeByte(mode);
+            buffer.writeLong(hash);
+            if (mode == DELTA)
+            {
+                buffer.writeLong(base);
+            }
+            if (mode != CACHED)
+            {
+                ByteBufUtils.writeVarInt(buffer, data.length, 5);
+                buffer.writeBytes(data);
+            }
+        }
+
+        public byte getMode()
+        {
+            return mode;
+        }
+        public long getHash()
+        {
+            return hash;
+        }
+        public long getBase()
+        {
+            return base;
+        }
+        public byte[] getData()
+        {
+            return data;
+        }
+
+        @Override
+        public String toString(Class<? extends Enum<?>> side)
+        {
+            return super.toString(side) + ":{" + mode + "," + data.length + " bytes}";
+        }
+    }
     public static class HandshakeAck extends FMLHandshakeMessage {
         int phase;
         public HandshakeAck() {}
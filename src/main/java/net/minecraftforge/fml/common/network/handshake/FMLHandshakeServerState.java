@@ -3,6 +3,7 @@ package net.minecraftforge.fml.common.network.handshake;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -16,6 +17,8 @@ import net.minecraftforge.fml.common.network.internal.FMLNetworkHandler;
 import net.minecraftforge.fml.common.registry.PersistentRegistryManager;
 import net.minecraftforge.fml.relauncher.Side;
 
+import org.apache.logging.log4j.Level;
+
 enum FMLHandshakeServerState implements IHandshakeState<FMLHandshakeServerState>
 {
     START
@@ -39,6 +42,8 @@ enum FMLHandshakeServerState implements IHandshakeState<FMLHandshakeServerState>
             if (msg instanceof FMLHandshakeMessage.ClientHello)
             {
                 FMLLog.info("Client protocol version %x", ((FMLHandshakeMessage.ClientHello)msg).protocolVersion());
+                NetworkDispatcher dispatcher = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get();
+                dispatcher.setCachedRegistries(((FMLHandshakeMessage.ClientHello)msg).cachedRegistries());
                 return this;
             }
 
@@ -64,11 +69,31 @@ enum FMLHandshakeServerState implements IHandshakeState<FMLHandshakeServerState>
             if (!ctx.channel().attr(NetworkDispatcher.IS_LOCAL).get())
             {
                 PersistentRegistryManager.GameDataSnapshot snapshot = PersistentRegistryManager.takeSnapshot();
-                Iterator<Map.Entry<ResourceLocation, PersistentRegistryManager.GameDataSnapshot.Entry>> itr = snapshot.entries.entrySet().iterator();
-                while (itr.hasNext())
+                long[] cachedRegistries = ctx.channel().attr(NetworkDispatcher.FML_DISPATCHER).get().getCachedRegistries();
+                FMLHandshakeMessage.RegistrySync sync = null;
+                if (cachedRegistries != null)
+                {
+                    try
+                    {
+                        sync = RegistrySnapshotCache.makeSync(snapshot, cachedRegistries);
+                    }
+                    catch (IOException e)
+                    {
+                        FMLLog.log(Level.ERROR, e, "Failed to encode the registry snapshot, sending it uncompressed");
+                    }
+                }
+                if (sync != null)
+                {
+                    ctx.writeAndFlush(sync).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                }
+                else
                 {
-                    Entry<ResourceLocation, PersistentRegistryManager.GameDataSnapshot.Entry> e = itr.next();
-                    ctx.writeAndFlush(new FMLHandshakeMessage.RegistryData(itr.hasNext(), e.getKey(), e.getValue())).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                    Iterator<Map.Entry<ResourceLocation, PersistentRegistryManager.GameDataSnapshot.Entry>> itr = snapshot.entries.entrySet().iterator();
+                    while (itr.hasNext())
+                    {
+                        Entry<ResourceLocation, PersistentRegistryManager.GameDataSnapshot.Entry> e = itr.next();
+                        ctx.writeAndFlush(new FMLHandshakeMessage.RegistryData(itr.hasNext(), e.getKey(), e.getValue())).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                    }
                 }
             }
             ctx.writeAndFlush(new FMLHandshakeMessage.HandshakeAck(ordinal())).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
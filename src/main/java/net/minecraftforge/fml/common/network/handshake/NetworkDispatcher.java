@@ -1,5 +1,6 @@
 package net.minecraftforge.fml.common.network.handshake;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandler;
@@ -13,10 +14,15 @@ import io.netty.util.concurrent.GenericFutureListener;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
@@ -37,6 +43,7 @@ import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.FMLNetworkEvent;
 import net.minecraftforge.fml.common.network.FMLNetworkException;
 import net.minecraftforge.fml.common.network.FMLOutboundHandler;
@@ -80,6 +87,14 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
         return net;
     }
 
+    /**
+     * Channel of the bundle packets written by {@link #flushBatches()}.
+     */
+    public static final String BUNDLE_CHANNEL = "FML|BN";
+    // Bundles stay well below the multipart size, larger payloads are sent on their own
+    private static final int BUNDLE_SIZE = 0x100000;
+    private static final Set<NetworkDispatcher> pendingBatches = Collections.newSetFromMap(new ConcurrentHashMap<NetworkDispatcher, Boolean>());
+
     public static final AttributeKey<NetworkDispatcher> FML_DISPATCHER = AttributeKey.valueOf("fml:dispatcher");
     public static final AttributeKey<Boolean> IS_LOCAL = AttributeKey.valueOf("fml:isLocal");
     public static final AttributeKey<PersistentRegistryManager.GameDataSnapshot> FML_GAMEDATA_SNAPSHOT = AttributeKey.valueOf("fml:gameDataSnapshot");
@@ -94,6 +109,10 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
     private INetHandler netHandler;
     private Map<String,String> modList;
     private int overrideLoginDim;
+    private volatile boolean remoteBundles;
+    private long[] cachedRegistries;
+    // Messages queued by batching channels until the end of the tick, keyed by channel and coalescing key
+    private final LinkedHashMap<Object, FMLProxyPacket> batch = new LinkedHashMap<Object, FMLProxyPacket>();
 
     public NetworkDispatcher(NetworkManager manager)
     {
@@ -360,6 +379,26 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
                 return true; // Haven't received all so return till we have.
             }
         }
+        if (BUNDLE_CHANNEL.equals(channelName))
+        {
+            PacketBuffer bundle = msg.getBufferData();
+            while (bundle.isReadable())
+            {
+                String channel = bundle.readStringFromBuffer(20);
+                int length = ByteBufUtils.readVarInt(bundle, 3);
+                if (length < 0 || length > bundle.readableBytes())
+                {
+                    this.kickWithMessage("The received FML bundle packet is truncated, Expected " + length + " bytes for " + channel + ", Received: " + bundle.readableBytes());
+                    return true;
+                }
+                S3FPacketCustomPayload part = new S3FPacketCustomPayload(channel, new PacketBuffer(bundle.readSlice(length)));
+                if (!handleClientSideCustomPacket(part, context))
+                {
+                    context.fireChannelRead(part);
+                }
+            }
+            return true;
+        }
         if ("FML|HS".equals(channelName) || "REGISTER".equals(channelName) || "UNREGISTER".equals(channelName))
         {
             FMLProxyPacket proxy = new FMLProxyPacket(msg);
@@ -435,6 +474,140 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
         manager.sendPacket(msg);
     }
 
+    /**
+     * Writes packets serialized by {@link FMLProxyPacket#toEncodedS3FPackets()} straight past the packet encoder of this
+     * connection, compression and encryption still apply. Connections without an encoder, like the integrated server,
+     * or that are not open fall back to {@link #sendProxy(FMLProxyPacket)}.
+     *
+     * @param encoded Not released, each write takes its own reference
+     */
+    public void sendEncoded(List<ByteBuf> encoded, FMLProxyPacket msg)
+    {
+        ChannelHandlerContext encoder = manager.channel().pipeline().context("encoder");
+        if (encoder == null || !manager.isChannelOpen())
+        {
+            sendProxy(msg);
+            return;
+        }
+        for (int x = 0; x < encoded.size(); x++)
+        {
+            ByteBuf buf = encoded.get(x).duplicate().retain();
+            if (x == encoded.size() - 1)
+            {
+                encoder.writeAndFlush(buf);
+            }
+            else
+            {
+                encoder.write(buf);
+            }
+        }
+    }
+
+    /**
+     * Queues a message for the bundle written to this connection at the end of the server tick. Sent right away if the
+     * remote side did not register the {@link #BUNDLE_CHANNEL}.
+     *
+     * @param coalescingKey A queued message of the same channel with an equal key is replaced, null never replaces
+     */
+    public void sendBatched(FMLProxyPacket msg, Object coalescingKey)
+    {
+        if (side == Side.CLIENT || !remoteBundles)
+        {
+            sendProxy(msg);
+            return;
+        }
+        synchronized (batch)
+        {
+            Object key = coalescingKey == null ? new Object() : Arrays.asList(msg.channel(), coalescingKey);
+            // Remove first, the newer message takes the place of the last one sent
+            batch.remove(key);
+            batch.put(key, msg);
+        }
+        pendingBatches.add(this);
+    }
+
+    /**
+     * Writes the messages queued by {@link #sendBatched(FMLProxyPacket, Object)} of all connections. Called at the end of
+     * each server tick.
+     */
+    public static void flushBatches()
+    {
+        for (Iterator<NetworkDispatcher> itr = pendingBatches.iterator(); itr.hasNext(); )
+        {
+            NetworkDispatcher dispatcher = itr.next();
+            itr.remove();
+            dispatcher.flushBatch();
+        }
+    }
+
+    private void flushBatch()
+    {
+        FMLProxyPacket[] queued;
+        synchronized (batch)
+        {
+            queued = batch.values().toArray(new FMLProxyPacket[batch.size()]);
+            batch.clear();
+        }
+        PacketBuffer bundle = null;
+        FMLProxyPacket first = null;
+        int count = 0;
+        for (FMLProxyPacket msg : queued)
+        {
+            ByteBuf payload = msg.payload();
+            int length = payload.readableBytes();
+            if (length + 64 > BUNDLE_SIZE)
+            {
+                sendBundle(bundle, first, count);
+                bundle = null;
+                count = 0;
+                sendProxy(msg);
+                continue;
+            }
+            if (bundle == null || bundle.writerIndex() + length + 64 > BUNDLE_SIZE)
+            {
+                sendBundle(bundle, first, count);
+                bundle = new PacketBuffer(Unpooled.buffer(Math.min(BUNDLE_SIZE, 256 + length)));
+                first = msg;
+                count = 0;
+            }
+            bundle.writeString(msg.channel());
+            ByteBufUtils.writeVarInt(bundle, length, 3);
+            bundle.writeBytes(payload, payload.readerIndex(), length);
+            count++;
+        }
+        sendBundle(bundle, first, count);
+    }
+
+    private void sendBundle(PacketBuffer bundle, FMLProxyPacket first, int count)
+    {
+        if (count == 1)
+        {
+            sendProxy(first);
+        }
+        else if (count > 1)
+        {
+            sendProxy(new FMLProxyPacket(bundle, BUNDLE_CHANNEL));
+        }
+    }
+
+    void setCachedRegistries(long[] cachedRegistries)
+    {
+        this.cachedRegistries = cachedRegistries;
+    }
+
+    /**
+     * @return The registry snapshots cached by the client, null if it does not cache them
+     */
+    long[] getCachedRegistries()
+    {
+        return cachedRegistries;
+    }
+
+    void setRemoteBundles(boolean remoteBundles)
+    {
+        this.remoteBundles = remoteBundles;
+    }
+
     public void rejectHandshake(String result)
     {
         kickWithMessage(result);
@@ -464,6 +637,7 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
         	MinecraftForge.EVENT_BUS.post(new FMLNetworkEvent.ServerDisconnectionFromClientEvent(manager));
         }
         cleanAttributes(ctx);
+        clearBatch();
         ctx.disconnect(promise);
     }
 
@@ -479,6 +653,7 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
         	MinecraftForge.EVENT_BUS.post(new FMLNetworkEvent.ServerDisconnectionFromClientEvent(manager));
         }
         cleanAttributes(ctx);
+        clearBatch();
         ctx.close(promise);
     }
 
@@ -577,6 +752,15 @@ public class NetworkDispatcher extends SimpleChannelInboundHandler<Packet> imple
         this.manager.channel().attr(FML_DISPATCHER).remove();
     }
 
+    private void clearBatch()
+    {
+        pendingBatches.remove(this);
+        synchronized (batch)
+        {
+            batch.clear();
+        }
+    }
+
     public void setOverrideDimension(int overrideDim) {
         this.overrideLoginDim = overrideDim;
         FMLLog.fine("Received override dimension %d", overrideDim);
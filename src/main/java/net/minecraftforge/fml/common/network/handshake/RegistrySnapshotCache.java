@@ -0,0 +1,485 @@
+package net.minecraftforge.fml.common.network.handshake;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.registry.PersistentRegistryManager.GameDataSnapshot;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import com.google.common.primitives.UnsignedLongs;
+
+/**
+ * Encodes the registry snapshots sent during the handshake, and keeps the recently used ones on disk so a client can
+ * skip the transfer, or only receive the changes, when it joins a server again.
+ * <p>
+ * A snapshot is encoded with its registries and names in sorted order. Each name only stores the part that differs from
+ * the previous one, and the whole encoding is deflated. The hash of the uncompressed encoding identifies the snapshot
+ * on both sides. A delta lists, per registry, the names removed from the base snapshot and the names added or moved
+ * to another id.
+ */
+public class RegistrySnapshotCache
+{
+    private static final int MAX_CACHED = 8;
+    private static final int MAX_SIZE = 64 * 1024 * 1024;
+    private static final String SUFFIX = ".bin";
+
+    // Marks a client snapshot that is not cached here, so no delta can be built against it
+    private static final byte[] NO_BASE = new byte[0];
+    // The snapshot last sent by the server, reconnecting clients all get the same encoding
+    private static final AtomicReference<Encoded> last = new AtomicReference<Encoded>();
+
+    private static class Encoded
+    {
+        final GameDataSnapshot snapshot;
+        final long hash;
+        final byte[] full;
+        // Deltas against the snapshots clients have cached, by their hash
+        final ConcurrentMap<Long, byte[]> deltas = new ConcurrentHashMap<Long, byte[]>();
+
+        Encoded(GameDataSnapshot snapshot, long hash, byte[] full)
+        {
+            this.snapshot = snapshot;
+            this.hash = hash;
+            this.full = full;
+        }
+    }
+
+    /**
+     * @return The hashes of the cached snapshots, most recently used first
+     */
+    static long[] cachedHashes()
+    {
+        File[] files = cachedFiles();
+        long[] hashes = new long[Math.min(files.length, MAX_CACHED)];
+        for (int i = 0; i < hashes.length; i++)
+        {
+            String name = files[i].getName();
+            hashes[i] = UnsignedLongs.parseUnsignedLong(name.substring(0, name.length() - SUFFIX.length()), 16);
+        }
+        return hashes;
+    }
+
+    /**
+     * Builds the message syncing the snapshot to a client, server side.
+     *
+     * @param clientHashes The snapshots the client has cached, most recently used first
+     */
+    static FMLHandshakeMessage.RegistrySync makeSync(GameDataSnapshot snapshot, long[] clientHashes) throws IOException
+    {
+        Encoded encoded = encode(snapshot, last.get());
+        for (long clientHash : clientHashes)
+        {
+            if (clientHash == encoded.hash)
+            {
+                return new FMLHandshakeMessage.RegistrySync(FMLHandshakeMessage.RegistrySync.CACHED, encoded.hash, 0, new byte[0]);
+            }
+        }
+
+        for (long clientHash : clientHashes)
+        {
+            byte[] delta = encoded.deltas.get(clientHash);
+            if (delta == null)
+            {
+                // Logins racing for the same base may both build it, the result is the same
+                GameDataSnapshot base = load(clientHash);
+                delta = base == null ? NO_BASE : deflate(encodeDelta(base, encoded.snapshot));
+                byte[] existing = encoded.deltas.putIfAbsent(clientHash, delta);
+                if (existing != null)
+                {
+                    delta = existing;
+                }
+            }
+            if (delta == NO_BASE)
+            {
+                continue;
+            }
+            if (delta.length < encoded.full.length)
+            {
+                return new FMLHandshakeMessage.RegistrySync(FMLHandshakeMessage.RegistrySync.DELTA, encoded.hash, clientHash, delta);
+            }
+            break;
+        }
+        return new FMLHandshakeMessage.RegistrySync(FMLHandshakeMessage.RegistrySync.FULL, encoded.hash, 0, encoded.full);
+    }
+
+    /**
+     * @return The encoding of the snapshot, reusing the previous one when the registries did not change since
+     */
+    private static Encoded encode(GameDataSnapshot snapshot, Encoded previous) throws IOException
+    {
+        if (previous != null && sameContent(previous.snapshot, snapshot))
+        {
+            return previous;
+        }
+        byte[] raw = encode(snapshot);
+        Encoded encoded = new Encoded(snapshot, hash(raw), deflate(raw));
+        if (last.compareAndSet(previous, encoded))
+        {
+            // Kept so the next snapshot can be sent as a delta against this one
+            store(encoded.hash, encoded.full);
+        }
+        return encoded;
+    }
+
+    /**
+     * Compares what {@link #encode(GameDataSnapshot)} writes, much cheaper than encoding and hashing again.
+     */
+    private static boolean sameContent(GameDataSnapshot a, GameDataSnapshot b)
+    {
+        if (!a.entries.keySet().equals(b.entries.keySet()))
+        {
+            return false;
+        }
+        for (Map.Entry<ResourceLocation, GameDataSnapshot.Entry> entry : a.entries.entrySet())
+        {
+            GameDataSnapshot.Entry other = b.entries.get(entry.getKey());
+            if (!entry.getValue().ids.equals(other.ids) || !entry.getValue().substitutions.equals(other.substitutions) || !entry.getValue().dummied.equals(other.dummied))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves a sync message into the server's snapshot, client side. Snapshots that were sent are cached.
+     *
+     * @throws IOException If a cached snapshot is missing or the result does not match the server's hash
+     */
+    static GameDataSnapshot read(FMLHandshakeMessage.RegistrySync msg) throws IOException
+    {
+        GameDataSnapshot snapshot;
+        switch (msg.getMode())
+        {
+            case FMLHandshakeMessage.RegistrySync.CACHED:
+                snapshot = load(msg.getHash());
+                break;
+            case FMLHandshakeMessage.RegistrySync.FULL:
+                snapshot = decode(inflate(msg.getData()));
+                break;
+            case FMLHandshakeMessage.RegistrySync.DELTA:
+                GameDataSnapshot base = load(msg.getBase());
+                snapshot = base == null ? null : applyDelta(base, inflate(msg.getData()));
+                break;
+            default:
+                throw new IOException("Unknown registry sync mode " + msg.getMode());
+        }
+        if (snapshot == null)
+        {
+            throw new IOException("The registry snapshot the server expects is no longer cached, please reconnect");
+        }
+
+        byte[] raw = encode(snapshot);
+        if (hash(raw) != msg.getHash())
+        {
+            // Make sure the next attempt receives the full snapshot
+            file(msg.getHash()).delete();
+            throw new IOException("The registry snapshot does not match the one sent by the server, please reconnect");
+        }
+        store(msg.getHash(), msg.getMode() == FMLHandshakeMessage.RegistrySync.FULL ? msg.getData() : deflate(raw));
+        return snapshot;
+    }
+
+    private static File cacheDir()
+    {
+        return new File(Loader.instance().getConfigDir().getParentFile(), "registrycache");
+    }
+
+    private static File file(long hash)
+    {
+        return new File(cacheDir(), String.format("%016x", hash) + SUFFIX);
+    }
+
+    private static File[] cachedFiles()
+    {
+        File[] files = cacheDir().listFiles(new FileFilter()
+        {
+            @Override
+            public boolean accept(File file)
+            {
+                return file.isFile() && file.getName().matches("[0-9a-f]{16}\\" + SUFFIX);
+            }
+        });
+        if (files == null)
+        {
+            return new File[0];
+        }
+        Arrays.sort(files, new Comparator<File>()
+        {
+            @Override
+            public int compare(File o1, File o2)
+            {
+                long l1 = o1.lastModified();
+                long l2 = o2.lastModified();
+                return l1 > l2 ? -1 : l1 < l2 ? 1 : 0;
+            }
+        });
+        return files;
+    }
+
+    private static void store(long hash, byte[] deflated)
+    {
+        try
+        {
+            File file = file(hash);
+            Files.createParentDirs(file);
+            Files.write(deflated, file);
+            File[] files = cachedFiles();
+            for (int i = MAX_CACHED; i < files.length; i++)
+            {
+                files[i].delete();
+            }
+        }
+        catch (IOException e)
+        {
+            FMLLog.log(Level.WARN, e, "Failed to cache the registry snapshot %016x", hash);
+        }
+    }
+
+    private static GameDataSnapshot load(long hash)
+    {
+        File file = file(hash);
+        if (!file.isFile())
+        {
+            return null;
+        }
+        try
+        {
+            GameDataSnapshot snapshot = decode(inflate(Files.toByteArray(file)));
+            file.setLastModified(System.currentTimeMillis());
+            return snapshot;
+        }
+        catch (Exception e)
+        {
+            FMLLog.log(Level.WARN, e, "Discarding the unreadable cached registry snapshot %016x", hash);
+            file.delete();
+            return null;
+        }
+    }
+
+    static long hash(byte[] raw)
+    {
+        return Hashing.sha1().hashBytes(raw).asLong();
+    }
+
+    private static byte[] deflate(byte[] raw) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(raw.length / 4);
+        DeflaterOutputStream out = new DeflaterOutputStream(bytes);
+        out.write(raw);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static ByteBuf inflate(byte[] deflated) throws IOException
+    {
+        InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(deflated));
+        byte[] raw = ByteStreams.toByteArray(ByteStreams.limit(in, MAX_SIZE + 1));
+        if (raw.length > MAX_SIZE)
+        {
+            throw new IOException("Registry snapshot exceeds " + MAX_SIZE + " bytes");
+        }
+        return Unpooled.wrappedBuffer(raw);
+    }
+
+    static byte[] encode(GameDataSnapshot snapshot)
+    {
+        ByteBuf buf = Unpooled.buffer();
+        Map<String, GameDataSnapshot.Entry> registries = sorted(snapshot.entries);
+        ByteBufUtils.writeVarInt(buf, registries.size(), 5);
+        for (Map.Entry<String, GameDataSnapshot.Entry> registry : registries.entrySet())
+        {
+            ByteBufUtils.writeUTF8String(buf, registry.getKey());
+            Map<String, Integer> ids = sorted(registry.getValue().ids);
+            writeNames(buf, ids.keySet(), ids);
+            writeNames(buf, sorted(registry.getValue().substitutions), null);
+            writeNames(buf, sorted(registry.getValue().dummied), null);
+        }
+        byte[] raw = new byte[buf.readableBytes()];
+        buf.readBytes(raw);
+        return raw;
+    }
+
+    static GameDataSnapshot decode(ByteBuf buf)
+    {
+        GameDataSnapshot snapshot = new GameDataSnapshot();
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        for (int i = 0; i < count; i++)
+        {
+            GameDataSnapshot.Entry entry = new GameDataSnapshot.Entry();
+            snapshot.entries.put(new ResourceLocation(ByteBufUtils.readUTF8String(buf)), entry);
+            readNames(buf, entry.ids);
+            readNames(buf, entry.substitutions);
+            readNames(buf, entry.dummied);
+        }
+        return snapshot;
+    }
+
+    static byte[] encodeDelta(GameDataSnapshot base, GameDataSnapshot snapshot)
+    {
+        ByteBuf buf = Unpooled.buffer();
+        Map<String, GameDataSnapshot.Entry> registries = sorted(snapshot.entries);
+        ByteBufUtils.writeVarInt(buf, registries.size(), 5);
+        for (Map.Entry<String, GameDataSnapshot.Entry> registry : registries.entrySet())
+        {
+            ByteBufUtils.writeUTF8String(buf, registry.getKey());
+            GameDataSnapshot.Entry baseEntry = base.entries.get(new ResourceLocation(registry.getKey()));
+            Map<String, Integer> baseIds = sorted(baseEntry == null ? Maps.<ResourceLocation, Integer>newHashMap() : baseEntry.ids);
+            Map<String, Integer> ids = sorted(registry.getValue().ids);
+
+            Set<String> removed = new TreeSet<String>(baseIds.keySet());
+            removed.removeAll(ids.keySet());
+            Map<String, Integer> changed = new TreeMap<String, Integer>();
+            for (Map.Entry<String, Integer> id : ids.entrySet())
+            {
+                if (!id.getValue().equals(baseIds.get(id.getKey())))
+                {
+                    changed.put(id.getKey(), id.getValue());
+                }
+            }
+            writeNames(buf, removed, null);
+            writeNames(buf, changed.keySet(), changed);
+            writeNames(buf, sorted(registry.getValue().substitutions), null);
+            writeNames(buf, sorted(registry.getValue().dummied), null);
+        }
+        byte[] raw = new byte[buf.readableBytes()];
+        buf.readBytes(raw);
+        return raw;
+    }
+
+    static GameDataSnapshot applyDelta(GameDataSnapshot base, ByteBuf buf)
+    {
+        GameDataSnapshot snapshot = new GameDataSnapshot();
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        for (int i = 0; i < count; i++)
+        {
+            ResourceLocation name = new ResourceLocation(ByteBufUtils.readUTF8String(buf));
+            GameDataSnapshot.Entry baseEntry = base.entries.get(name);
+            GameDataSnapshot.Entry entry = new GameDataSnapshot.Entry();
+            snapshot.entries.put(name, entry);
+            if (baseEntry != null)
+            {
+                entry.ids.putAll(baseEntry.ids);
+            }
+            Set<ResourceLocation> removed = new HashSet<ResourceLocation>();
+            readNames(buf, removed);
+            entry.ids.keySet().removeAll(removed);
+            readNames(buf, entry.ids);
+            readNames(buf, entry.substitutions);
+            readNames(buf, entry.dummied);
+        }
+        return snapshot;
+    }
+
+    private static <V> Map<String, V> sorted(Map<ResourceLocation, V> map)
+    {
+        Map<String, V> sorted = new TreeMap<String, V>();
+        for (Map.Entry<ResourceLocation, V> entry : map.entrySet())
+        {
+            sorted.put(entry.getKey().toString(), entry.getValue());
+        }
+        return sorted;
+    }
+
+    private static Collection<String> sorted(Set<ResourceLocation> set)
+    {
+        List<String> sorted = new ArrayList<String>(set.size());
+        for (ResourceLocation name : set)
+        {
+            sorted.add(name.toString());
+        }
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Writes sorted names, each as the length of the prefix it shares with the previous name and the rest of it.
+     *
+     * @param ids The id of each name, or null for a plain list of names
+     */
+    private static void writeNames(ByteBuf buf, Collection<String> names, Map<String, Integer> ids)
+    {
+        ByteBufUtils.writeVarInt(buf, names.size(), 5);
+        String previous = "";
+        for (String name : names)
+        {
+            int shared = 0;
+            int max = Math.min(previous.length(), name.length());
+            while (shared < max && previous.charAt(shared) == name.charAt(shared))
+            {
+                shared++;
+            }
+            // Never split a surrogate pair, the suffix has to be valid on its own
+            if (shared > 0 && Character.isHighSurrogate(name.charAt(shared - 1)))
+            {
+                shared--;
+            }
+            ByteBufUtils.writeVarInt(buf, shared, 5);
+            ByteBufUtils.writeUTF8String(buf, name.substring(shared));
+            if (ids != null)
+            {
+                ByteBufUtils.writeVarInt(buf, ids.get(name), 5);
+            }
+            previous = name;
+        }
+    }
+
+    private static void readNames(ByteBuf buf, Map<ResourceLocation, Integer> ids)
+    {
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        String previous = "";
+        for (int i = 0; i < count; i++)
+        {
+            previous = readName(buf, previous);
+            ids.put(new ResourceLocation(previous), ByteBufUtils.readVarInt(buf, 5));
+        }
+    }
+
+    private static void readNames(ByteBuf buf, Set<ResourceLocation> names)
+    {
+        int count = ByteBufUtils.readVarInt(buf, 5);
+        String previous = "";
+        for (int i = 0; i < count; i++)
+        {
+            previous = readName(buf, previous);
+            names.add(new ResourceLocation(previous));
+        }
+    }
+
+    private static String readName(ByteBuf buf, String previous)
+    {
+        int shared = ByteBufUtils.readVarInt(buf, 5);
+        return previous.substring(0, shared) + ByteBufUtils.readUTF8String(buf);
+    }
+}
@@ -1,12 +1,15 @@
 package net.minecraftforge.fml.common.network.internal;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 
 import java.io.IOException;
 import java.util.List;
 
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.EnumPacketDirection;
 import net.minecraft.network.INetHandler;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.Packet;
@@ -129,15 +132,15 @@ public class FMLProxyPacket implements Packet<INetHandler> {
     public List<Packet<INetHandlerPlayClient>> toS3FPackets() throws IOException
     {
         List<Packet<INetHandlerPlayClient>> ret = Lists.newArrayList();
-        byte[] data = payload.array();
+        int size = payload.readableBytes();
 
-        if (data.length < PART_SIZE)
+        if (size < PART_SIZE)
         {
             ret.add(new S3FPacketCustomPayload(channel, payload));
         }
         else
         {
-            int parts = (int)Math.ceil(data.length / (double)(PART_SIZE - 1)); //We add a byte header so -1
+            int parts = (int)Math.ceil(size / (double)(PART_SIZE - 1)); //We add a byte header so -1
             if (parts > 255)
             {
                 throw new IllegalArgumentException("Payload may not be larger than " + MAX_LENGTH + " bytes");
@@ -145,23 +148,50 @@ public class FMLProxyPacket implements Packet<INetHandler> {
             PacketBuffer preamble = new PacketBuffer(Unpooled.buffer());
             preamble.writeString(channel);
             preamble.writeByte(parts);
-            preamble.writeInt(data.length);
+            preamble.writeInt(size);
             ret.add(new S3FPacketCustomPayload("FML|MP", preamble));
 
-            int offset = 0;
+            // Each part is the part index followed by a view of the payload, nothing is copied until it is written out
+            int offset = payload.readerIndex();
             for (int x = 0; x < parts; x++)
             {
-                int length = Math.min(PART_SIZE, data.length - offset + 1);
-                byte[] tmp = new byte[length];
-                tmp[0] = (byte)(x & 0xFF);
-                System.arraycopy(data, offset, tmp, 1, tmp.length - 1);
-                offset += tmp.length - 1;
-                ret.add(new S3FPacketCustomPayload("FML|MP", new PacketBuffer(Unpooled.wrappedBuffer(tmp))));
+                int length = Math.min(PART_SIZE - 1, payload.writerIndex() - offset);
+                ByteBuf header = Unpooled.wrappedBuffer(new byte[] { (byte)(x & 0xFF) });
+                ret.add(new S3FPacketCustomPayload("FML|MP", new PacketBuffer(Unpooled.wrappedBuffer(header, payload.slice(offset, length)))));
+                offset += length;
             }
         }
         return ret;
     }
 
+    /**
+     * Serializes the S3F packets of this payload once, exactly as the vanilla packet encoder would, so the same bytes
+     * can be written to many clients. The buffers are pooled, the caller has to release them.
+     */
+    public List<ByteBuf> toEncodedS3FPackets() throws IOException
+    {
+        List<ByteBuf> ret = Lists.newArrayList();
+        try
+        {
+            for (Packet<INetHandlerPlayClient> pkt : toS3FPackets())
+            {
+                PacketBuffer buf = new PacketBuffer(PooledByteBufAllocator.DEFAULT.buffer());
+                ret.add(buf);
+                buf.writeVarIntToBuffer(EnumConnectionState.PLAY.getPacketId(EnumPacketDirection.CLIENTBOUND, pkt));
+                pkt.writePacketData(buf);
+            }
+        }
+        catch (IOException e)
+        {
+            for (ByteBuf buf : ret)
+            {
+                buf.release();
+            }
+            throw e;
+        }
+        return ret;
+    }
+
     public void setTarget(Side target)
     {
         this.target = target;
@@ -0,0 +1,21 @@
+package net.minecraftforge.fml.common.network.simpleimpl;
+
+/**
+ * Where an {@link IMessageHandler} registered with {@link SimpleNetworkWrapper} runs.
+ */
+public enum ExecutionPolicy {
+    /**
+     * On the netty thread that received the message, as soon as it arrives. The handler has to pass any work on the game
+     * state to the main thread itself.
+     */
+    NETTY,
+    /**
+     * On the main thread of the receiving side, at the start of the next tick. Each tick only handles as many queued
+     * messages as fit in its time budget, the rest wait for the following tick.
+     */
+    MAIN_THREAD,
+    /**
+     * On a small shared pool of worker threads, for handlers that do not touch the game state.
+     */
+    WORKER;
+}
@@ -0,0 +1,13 @@
+package net.minecraftforge.fml.common.network.simpleimpl;
+
+/**
+ * A message that can replace an older one of the same type while they wait in a batch, see
+ * {@link SimpleNetworkWrapper#setBatching(boolean)}. Use it for state updates where only the latest one matters.
+ */
+public interface ICoalescingMessage extends IMessage {
+    /**
+     * @return A key that equals the key of every queued message this one supersedes, such as the position of the tile
+     * entity it syncs. Null if this message should not replace any other.
+     */
+    public Object getCoalescingKey();
+}
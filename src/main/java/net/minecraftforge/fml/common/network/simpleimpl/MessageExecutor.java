@@ -0,0 +1,327 @@
+package net.minecraftforge.fml.common.network.simpleimpl;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minecraft.network.NetHandlerPlayServer;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.relauncher.Side;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Runs the handlers of messages that do not execute on the netty thread, see {@link ExecutionPolicy}.
+ * <p>
+ * Every connection may only have a limited number of messages waiting, and each policy has a limited queue. Messages
+ * beyond either limit are dropped, so a client flooding the server can neither starve the tick loop nor grow the
+ * queues without bound. The limits can be changed with the fml.network.* system properties.
+ */
+public class MessageExecutor
+{
+    private static final long MAIN_THREAD_BUDGET = TimeUnit.MILLISECONDS.toNanos(Long.getLong("fml.network.mainThreadBudget", 10));
+    private static final int MAX_QUEUED = Integer.getInteger("fml.network.maxQueued", 8192);
+    private static final int MAX_QUEUED_PER_CONNECTION = Integer.getInteger("fml.network.maxQueuedPerConnection", 512);
+    private static final int WORKER_THREADS = Integer.getInteger("fml.network.workerThreads", Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+
+    private static final EnumMap<Side, Queue<Task>> mainThreadTasks = Maps.newEnumMap(Side.class);
+    // Replies of worker handlers, they are cheap and never dropped
+    private static final EnumMap<Side, Queue<Runnable>> mainThreadWrites = Maps.newEnumMap(Side.class);
+    // Bumped when a side stops, worker tasks queued before that are skipped
+    private static final EnumMap<Side, AtomicInteger> generations = Maps.newEnumMap(Side.class);
+    private static ThreadPoolExecutor workers;
+    // Messages waiting per connection, guarded by itself
+    private static final Map<Object, Pending> pending = Maps.newHashMap();
+
+    private static final AtomicInteger[] queued = new AtomicInteger[ExecutionPolicy.values().length];
+    private static final AtomicLong[] executed = new AtomicLong[ExecutionPolicy.values().length];
+    private static final AtomicLong[] shed = new AtomicLong[ExecutionPolicy.values().length];
+
+    static
+    {
+        for (Side side : Side.values())
+        {
+            mainThreadTasks.put(side, new ConcurrentLinkedQueue<Task>());
+            mainThreadWrites.put(side, new ConcurrentLinkedQueue<Runnable>());
+            generations.put(side, new AtomicInteger());
+        }
+        for (int i = 0; i < queued.length; i++)
+        {
+            queued[i] = new AtomicInteger();
+            executed[i] = new AtomicLong();
+            shed[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Queues a handler invocation.
+     *
+     * @param policy Either {@link ExecutionPolicy#MAIN_THREAD} or {@link ExecutionPolicy#WORKER}
+     * @param side The side the message was received on
+     * @param connection The connection the message was received from
+     * @return False if the message was dropped because a queue is full
+     */
+    static boolean submit(ExecutionPolicy policy, Side side, Object connection, Runnable runnable)
+    {
+        if (!acquire(side, connection))
+        {
+            shed[policy.ordinal()].incrementAndGet();
+            return false;
+        }
+        Task task = new Task(policy, side, connection, runnable);
+        if (queued[policy.ordinal()].incrementAndGet() > MAX_QUEUED)
+        {
+            return reject(task);
+        }
+        if (policy == ExecutionPolicy.MAIN_THREAD)
+        {
+            mainThreadTasks.get(side).add(task);
+        }
+        else
+        {
+            try
+            {
+                workers().execute(task);
+            }
+            catch (RejectedExecutionException e)
+            {
+                return reject(task);
+            }
+        }
+        return true;
+    }
+
+    private static boolean reject(Task task)
+    {
+        queued[task.policy.ordinal()].decrementAndGet();
+        release(task.connection);
+        shed[task.policy.ordinal()].incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Queues a write for the start of the next tick of a side. Channels are not thread safe and their target attributes
+     * are shared by all connections, so messages must only be sent from the main thread.
+     */
+    static void runOnMainThread(Side side, Runnable write)
+    {
+        mainThreadWrites.get(side).add(write);
+    }
+
+    /**
+     * Runs the writes queued for the main thread of a side, then the handlers queued for it until the queue is empty or
+     * the time budget of the tick is used up. Called at the start of each tick.
+     */
+    public static void runMainThreadTasks(Side side)
+    {
+        Queue<Runnable> writes = mainThreadWrites.get(side);
+        Runnable write;
+        while ((write = writes.poll()) != null)
+        {
+            try
+            {
+                write.run();
+            }
+            catch (Throwable t)
+            {
+                FMLLog.log(Level.ERROR, t, "Failed to send the reply of a message handler");
+            }
+        }
+
+        Queue<Task> tasks = mainThreadTasks.get(side);
+        long start = System.nanoTime();
+        Task task;
+        while ((task = tasks.poll()) != null)
+        {
+            task.run();
+            if (System.nanoTime() - start > MAIN_THREAD_BUDGET)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drops everything still queued for a side and forgets its connections, so nothing of a stopped server is handled
+     * once the next one starts. Worker tasks already queued are skipped when they come up.
+     */
+    public static void clear(Side side)
+    {
+        generations.get(side).incrementAndGet();
+        mainThreadWrites.get(side).clear();
+        Queue<Task> tasks = mainThreadTasks.get(side);
+        Task task;
+        while ((task = tasks.poll()) != null)
+        {
+            queued[task.policy.ordinal()].decrementAndGet();
+        }
+        synchronized (pending)
+        {
+            for (Iterator<Pending> itr = pending.values().iterator(); itr.hasNext(); )
+            {
+                if (itr.next().side == side)
+                {
+                    itr.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of messages currently waiting to be handled with the policy
+     */
+    public static int getQueued(ExecutionPolicy policy)
+    {
+        return queued[policy.ordinal()].get();
+    }
+
+    /**
+     * @return The number of messages handled with the policy so far
+     */
+    public static long getExecuted(ExecutionPolicy policy)
+    {
+        return executed[policy.ordinal()].get();
+    }
+
+    /**
+     * @return The number of messages dropped because a queue of the policy or of their connection was full
+     */
+    public static long getShed(ExecutionPolicy policy)
+    {
+        return shed[policy.ordinal()].get();
+    }
+
+    private static synchronized ThreadPoolExecutor workers()
+    {
+        if (workers == null)
+        {
+            // The queue is bounded by MAX_QUEUED already
+            workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_QUEUED), new ThreadFactory()
+            {
+                private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "Forge Network Worker Thread-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            workers.allowCoreThreadTimeOut(true);
+        }
+        return workers;
+    }
+
+    private static boolean acquire(Side side, Object connection)
+    {
+        synchronized (pending)
+        {
+            Pending count = pending.get(connection);
+            if (count == null)
+            {
+                count = new Pending(side);
+                pending.put(connection, count);
+            }
+            if (count.messages >= MAX_QUEUED_PER_CONNECTION)
+            {
+                if (!count.shedding)
+                {
+                    count.shedding = true;
+                    FMLLog.log(Level.WARN, "Dropping messages from %s, it already has %d waiting to be handled", describe(connection), count.messages);
+                }
+                return false;
+            }
+            count.messages++;
+            return true;
+        }
+    }
+
+    private static void release(Object connection)
+    {
+        synchronized (pending)
+        {
+            Pending count = pending.get(connection);
+            if (count != null && --count.messages <= 0)
+            {
+                pending.remove(connection);
+            }
+        }
+    }
+
+    private static String describe(Object connection)
+    {
+        if (connection instanceof NetHandlerPlayServer)
+        {
+            return ((NetHandlerPlayServer)connection).playerEntity.getName();
+        }
+        return "the server";
+    }
+
+    private static class Pending
+    {
+        final Side side;
+        int messages;
+        boolean shedding;
+
+        Pending(Side side)
+        {
+            this.side = side;
+        }
+    }
+
+    private static class Task implements Runnable
+    {
+        private final ExecutionPolicy policy;
+        private final Side side;
+        private final int generation;
+        private final Object connection;
+        private final Runnable runnable;
+
+        Task(ExecutionPolicy policy, Side side, Object connection, Runnable runnable)
+        {
+            this.policy = policy;
+            this.side = side;
+            this.generation = generations.get(side).get();
+            this.connection = connection;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run()
+        {
+            if (generations.get(side).get() != generation)
+            {
+                // Submitted before the side was cleared
+                queued[policy.ordinal()].decrementAndGet();
+                release(connection);
+                return;
+            }
+            try
+            {
+                runnable.run();
+            }
+            catch (Throwable t)
+            {
+                FMLLog.log(Level.ERROR, t, "SimpleChannelHandlerWrapper exception");
+            }
+            finally
+            {
+                queued[policy.ordinal()].decrementAndGet();
+                executed[policy.ordinal()].incrementAndGet();
+                release(connection);
+            }
+        }
+    }
+}
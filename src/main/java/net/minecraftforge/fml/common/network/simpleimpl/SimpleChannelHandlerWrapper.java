@@ -3,13 +3,16 @@ package net.minecraftforge.fml.common.network.simpleimpl;
 import org.apache.logging.log4j.Level;
 
 import net.minecraft.network.INetHandler;
+import net.minecraft.network.NetHandlerPlayServer;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.network.FMLOutboundHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.handshake.NetworkDispatcher;
 import net.minecraftforge.fml.relauncher.Side;
 
 import com.google.common.base.Preconditions;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -17,6 +20,8 @@ import io.netty.channel.SimpleChannelInboundHandler;
 public class SimpleChannelHandlerWrapper<REQ extends IMessage, REPLY extends IMessage> extends SimpleChannelInboundHandler<REQ> {
     private final IMessageHandler<? super REQ, ? extends REPLY> messageHandler;
     private final Side side;
+    private final ExecutionPolicy policy;
+    private volatile boolean warnedUnaddressable = false;
     
     public SimpleChannelHandlerWrapper(Class<? extends IMessageHandler<? super REQ, ? extends REPLY>> handler, Side side, Class<REQ> requestType)
     {
@@ -24,21 +29,94 @@ public class SimpleChannelHandlerWrapper<REQ extends IMessage, REPLY extends IMe
     }
     
     public SimpleChannelHandlerWrapper(IMessageHandler<? super REQ, ? extends REPLY> handler, Side side, Class<REQ> requestType)
+    {
+        this(handler, side, requestType, ExecutionPolicy.NETTY);
+    }
+
+    public SimpleChannelHandlerWrapper(IMessageHandler<? super REQ, ? extends REPLY> handler, Side side, Class<REQ> requestType, ExecutionPolicy policy)
     {
         super(requestType);
         messageHandler = Preconditions.checkNotNull(handler, "IMessageHandler must not be null");
         this.side = side;
+        this.policy = Preconditions.checkNotNull(policy, "ExecutionPolicy must not be null");
     }
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, REQ msg) throws Exception
+    protected void channelRead0(ChannelHandlerContext ctx, final REQ msg) throws Exception
+    {
+        final INetHandler iNetHandler = ctx.channel().attr(NetworkRegistry.NET_HANDLER).get();
+        final MessageContext context = new MessageContext(iNetHandler, side);
+        if (policy == ExecutionPolicy.NETTY)
+        {
+            REPLY result = messageHandler.onMessage(msg, context);
+            if (result != null)
+            {
+                ctx.channel().attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.REPLY);
+                ctx.writeAndFlush(result).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            }
+            return;
+        }
+
+        // By the time the handler runs the channel is handling other messages, so the sender has to be captured now
+        final Channel channel = ctx.channel();
+        final NetworkDispatcher sender = iNetHandler instanceof NetHandlerPlayServer ? NetworkDispatcher.get(((NetHandlerPlayServer)iNetHandler).netManager) : null;
+        MessageExecutor.submit(policy, side, iNetHandler, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                final REPLY result = messageHandler.onMessage(msg, context);
+                if (result == null)
+                {
+                    return;
+                }
+                if (side == Side.SERVER && sender == null)
+                {
+                    warnUnaddressable(iNetHandler);
+                    return;
+                }
+                Runnable write = new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        writeReply(channel, sender, result);
+                    }
+                };
+                // The channel and its target attributes are shared by all connections, so like every other message
+                // the reply is written from the main thread
+                if (policy == ExecutionPolicy.MAIN_THREAD)
+                {
+                    write.run();
+                }
+                else
+                {
+                    MessageExecutor.runOnMainThread(side, write);
+                }
+            }
+        });
+    }
+
+    private void writeReply(Channel channel, NetworkDispatcher sender, REPLY result)
+    {
+        if (side == Side.CLIENT)
+        {
+            channel.attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.TOSERVER);
+        }
+        else
+        {
+            channel.attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.DISPATCHER);
+            channel.attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(sender);
+        }
+        channel.writeAndFlush(result).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+    }
+
+    private void warnUnaddressable(INetHandler iNetHandler)
     {
-        INetHandler iNetHandler = ctx.channel().attr(NetworkRegistry.NET_HANDLER).get();
-        MessageContext context = new MessageContext(iNetHandler, side);
-        REPLY result = messageHandler.onMessage(msg, context);
-        if (result != null)
+        if (!warnedUnaddressable)
         {
-            ctx.channel().attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.REPLY);
-            ctx.writeAndFlush(result).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            warnedUnaddressable = true;
+            FMLLog.log(Level.WARN, "%s runs with the %s policy and replied to a message received on %s, which is not a player connection. Such replies are dropped",
+                    messageHandler.getClass().getName(), policy, iNetHandler == null ? "no connection" : iNetHandler.getClass().getName());
         }
     }
 
@@ -3,6 +3,7 @@ package net.minecraftforge.fml.common.network.simpleimpl;
 import io.netty.channel.ChannelFutureListener;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.EnumMap;
 
 import com.google.common.base.Throwables;
@@ -138,6 +139,20 @@ public class SimpleNetworkWrapper {
     {
         registerMessage(instantiate(messageHandler), requestMessageType, discriminator, side);
     }
+
+    /**
+     * Register a message and it's associated handler, which runs as specified by the execution policy.
+     *
+     * @param messageHandler the message handler type
+     * @param requestMessageType the message type
+     * @param discriminator a discriminator byte
+     * @param side the side for the handler
+     * @param policy where the handler runs
+     */
+    public <REQ extends IMessage, REPLY extends IMessage> void registerMessage(Class<? extends IMessageHandler<REQ, REPLY>> messageHandler, Class<REQ> requestMessageType, int discriminator, Side side, ExecutionPolicy policy)
+    {
+        registerMessage(instantiate(messageHandler), requestMessageType, discriminator, side, policy);
+    }
     
     static <REQ extends IMessage, REPLY extends IMessage> IMessageHandler<? super REQ, ? extends REPLY> instantiate(Class<? extends IMessageHandler<? super REQ, ? extends REPLY>> handler)
     {
@@ -160,35 +175,49 @@ public class SimpleNetworkWrapper {
      * @param side the side for the handler
      */
     public <REQ extends IMessage, REPLY extends IMessage> void registerMessage(IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Class<REQ> requestMessageType, int discriminator, Side side)
+    {
+        registerMessage(messageHandler, requestMessageType, discriminator, side, ExecutionPolicy.NETTY);
+    }
+
+    /**
+     * Register a message and it's associated handler, which runs as specified by the execution policy.
+     *
+     * @param messageHandler the message handler instance
+     * @param requestMessageType the message type
+     * @param discriminator a discriminator byte
+     * @param side the side for the handler
+     * @param policy where the handler runs
+     */
+    public <REQ extends IMessage, REPLY extends IMessage> void registerMessage(IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Class<REQ> requestMessageType, int discriminator, Side side, ExecutionPolicy policy)
     {
         packetCodec.addDiscriminator(discriminator, requestMessageType);
         FMLEmbeddedChannel channel = channels.get(side);
         String type = channel.findChannelHandlerNameForType(SimpleIndexedCodec.class);
         if (side == Side.SERVER)
         {
-            addServerHandlerAfter(channel, type, messageHandler, requestMessageType);
+            addServerHandlerAfter(channel, type, messageHandler, requestMessageType, policy);
         }
         else
         {
-            addClientHandlerAfter(channel, type, messageHandler, requestMessageType);
+            addClientHandlerAfter(channel, type, messageHandler, requestMessageType, policy);
         }
     }
 
-    private <REQ extends IMessage, REPLY extends IMessage, NH extends INetHandler> void addServerHandlerAfter(FMLEmbeddedChannel channel, String type, IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Class<REQ> requestType)
+    private <REQ extends IMessage, REPLY extends IMessage, NH extends INetHandler> void addServerHandlerAfter(FMLEmbeddedChannel channel, String type, IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Class<REQ> requestType, ExecutionPolicy policy)
     {
-        SimpleChannelHandlerWrapper<REQ, REPLY> handler = getHandlerWrapper(messageHandler, Side.SERVER, requestType);
+        SimpleChannelHandlerWrapper<REQ, REPLY> handler = getHandlerWrapper(messageHandler, Side.SERVER, requestType, policy);
         channel.pipeline().addAfter(type, generateName(channel.pipeline(), handler), handler);
     }
 
-    private <REQ extends IMessage, REPLY extends IMessage, NH extends INetHandler> void addClientHandlerAfter(FMLEmbeddedChannel channel, String type, IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Class<REQ> requestType)
+    private <REQ extends IMessage, REPLY extends IMessage, NH extends INetHandler> void addClientHandlerAfter(FMLEmbeddedChannel channel, String type, IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Class<REQ> requestType, ExecutionPolicy policy)
     {
-        SimpleChannelHandlerWrapper<REQ, REPLY> handler = getHandlerWrapper(messageHandler, Side.CLIENT, requestType);
+        SimpleChannelHandlerWrapper<REQ, REPLY> handler = getHandlerWrapper(messageHandler, Side.CLIENT, requestType, policy);
         channel.pipeline().addAfter(type, generateName(channel.pipeline(), handler), handler);
     }
 
-    private <REPLY extends IMessage, REQ extends IMessage> SimpleChannelHandlerWrapper<REQ, REPLY> getHandlerWrapper(IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Side side, Class<REQ> requestType)
+    private <REPLY extends IMessage, REQ extends IMessage> SimpleChannelHandlerWrapper<REQ, REPLY> getHandlerWrapper(IMessageHandler<? super REQ, ? extends REPLY> messageHandler, Side side, Class<REQ> requestType, ExecutionPolicy policy)
     {
-        return new SimpleChannelHandlerWrapper<REQ, REPLY>(messageHandler, side, requestType);
+        return new SimpleChannelHandlerWrapper<REQ, REPLY>(messageHandler, side, requestType, policy);
     }
 
     /**
@@ -203,6 +232,26 @@ public class SimpleNetworkWrapper {
         return channels.get(Side.SERVER).generatePacketFrom(message);
     }
 
+    /**
+     * Batch the messages sent from the server, they are written to each player as one packet at the end of the tick.
+     * Queued {@link ICoalescingMessage}s are replaced by newer ones with the same key.
+     *
+     * @param batching If messages sent from the server should be batched
+     */
+    public void setBatching(boolean batching)
+    {
+        channels.get(Side.SERVER).setBatching(batching);
+    }
+
+    private void setCoalescingKey(IMessage message)
+    {
+        if (message instanceof ICoalescingMessage)
+        {
+            Object key = ((ICoalescingMessage)message).getCoalescingKey();
+            channels.get(Side.SERVER).setCoalescingKey(key == null ? null : Arrays.asList(message.getClass(), key));
+        }
+    }
+
     /**
      * Send this message to everyone.
      * The {@link IMessageHandler} for this message type should be on the CLIENT side.
@@ -212,6 +261,7 @@ public class SimpleNetworkWrapper {
     public void sendToAll(IMessage message)
     {
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.ALL);
+        setCoalescingKey(message);
         channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }
 
@@ -226,6 +276,7 @@ public class SimpleNetworkWrapper {
     {
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.PLAYER);
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(player);
+        setCoalescingKey(message);
         channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }
 
@@ -240,6 +291,7 @@ public class SimpleNetworkWrapper {
     {
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.ALLAROUNDPOINT);
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(point);
+        setCoalescingKey(message);
         channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }
 
@@ -254,6 +306,7 @@ public class SimpleNetworkWrapper {
     {
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.DIMENSION);
         channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(dimensionId);
+        setCoalescingKey(message);
         channels.get(Side.SERVER).writeAndFlush(message).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }
 
@@ -24,6 +24,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.minecraft.block.Block;
 import net.minecraft.item.Item;
@@ -42,11 +48,13 @@ import net.minecraft.world.World;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.IFuelHandler;
+import net.minecraftforge.fml.common.IRegionWorldGenerator;
 import net.minecraftforge.fml.common.IWorldGenerator;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.LoaderException;
 import net.minecraftforge.fml.common.LoaderState;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
+import net.minecraftforge.fml.common.WorldGenRegion;
 
 import org.apache.logging.log4j.Level;
 
@@ -59,6 +67,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.ObjectArrays;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 public class GameRegistry
 {
@@ -66,6 +75,9 @@ public class GameRegistry
     private static Map<IWorldGenerator, Integer> worldGeneratorIndex = Maps.newHashMap();
     private static List<IFuelHandler> fuelHandlers = Lists.newArrayList();
     private static List<IWorldGenerator> sortedGeneratorList;
+    private static final boolean PARALLEL_WORLDGEN = Boolean.parseBoolean(System.getProperty("fml.parallelWorldGen", "false"));
+    private static final int WORLDGEN_THREADS = Integer.getInteger("fml.worldGenThreads", Runtime.getRuntime().availableProcessors());
+    private static ExecutorService worldGenWorkers;
 
     /**
      * Register a world generator - something that inserts new block types into the world
@@ -106,11 +118,103 @@ public class GameRegistry
         long zSeed = fmlRandom.nextLong() >> 2 + 1L;
         long chunkSeed = (xSeed * chunkX + zSeed * chunkZ) ^ worldSeed;
 
+        List<IRegionWorldGenerator> batch = null;
         for (IWorldGenerator generator : sortedGeneratorList)
         {
+            if (generator instanceof IRegionWorldGenerator)
+            {
+                if (batch == null)
+                {
+                    batch = Lists.newArrayList();
+                }
+                batch.add((IRegionWorldGenerator)generator);
+                continue;
+            }
+            if (batch != null)
+            {
+                generateRegions(batch, chunkSeed, chunkX, chunkZ, world, chunkGenerator, chunkProvider);
+                batch = null;
+            }
             fmlRandom.setSeed(chunkSeed);
             generator.generate(fmlRandom, chunkX, chunkZ, world, chunkGenerator, chunkProvider);
         }
+        if (batch != null)
+        {
+            generateRegions(batch, chunkSeed, chunkX, chunkZ, world, chunkGenerator, chunkProvider);
+        }
+    }
+
+    /**
+     * Runs consecutive region generators against the world as it is before any of them, then commits their regions in
+     * generator order. Whether that happens on worker threads does not change the result.
+     */
+    private static void generateRegions(List<IRegionWorldGenerator> batch, final long chunkSeed, final int chunkX, final int chunkZ, World world, IChunkProvider chunkGenerator, IChunkProvider chunkProvider)
+    {
+        List<WorldGenRegion> regions = Lists.newArrayListWithCapacity(batch.size());
+        List<FutureTask<Void>> tasks = Lists.newArrayListWithCapacity(batch.size());
+        for (final IRegionWorldGenerator generator : batch)
+        {
+            final WorldGenRegion region = new WorldGenRegion(world, chunkX, chunkZ, chunkGenerator, chunkProvider);
+            FutureTask<Void> task = new FutureTask<Void>(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    generator.generate(new Random(chunkSeed), chunkX, chunkZ, region);
+                }
+            }, null);
+            regions.add(region);
+            tasks.add(task);
+            if (PARALLEL_WORLDGEN && batch.size() > 1)
+            {
+                worldGenWorkers().execute(task);
+            }
+            else
+            {
+                task.run();
+            }
+        }
+        // Wait for all of them before failing, none may still be reading the chunks once the server thread moves on
+        Throwable failure = null;
+        for (FutureTask<Void> task : tasks)
+        {
+            try
+            {
+                Uninterruptibles.getUninterruptibly(task);
+            }
+            catch (ExecutionException e)
+            {
+                failure = failure == null ? e.getCause() : failure;
+            }
+        }
+        if (failure != null)
+        {
+            throw Throwables.propagate(failure);
+        }
+        for (WorldGenRegion region : regions)
+        {
+            region.commit();
+        }
+    }
+
+    private static synchronized ExecutorService worldGenWorkers()
+    {
+        if (worldGenWorkers == null)
+        {
+            worldGenWorkers = Executors.newFixedThreadPool(WORLDGEN_THREADS, new ThreadFactory()
+            {
+                private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "FML World Generation Thread-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return worldGenWorkers;
     }
 
     private static void computeSortedGeneratorList()
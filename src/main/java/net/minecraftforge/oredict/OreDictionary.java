@@ -3,10 +3,8 @@ package net.minecraftforge.oredict;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import net.minecraft.util.ResourceLocation;
 import org.apache.logging.log4j.Level;
@@ -21,10 +19,10 @@ import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.item.crafting.ShapedRecipes;
 import net.minecraft.item.crafting.ShapelessRecipes;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.IntObjectHashMap;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.Loader;
@@ -38,7 +36,13 @@ public class OreDictionary
     private static Map<String, Integer>  nameToId = new HashMap<String, Integer>();
     private static List<List<ItemStack>> idToStack = Lists.newArrayList();
     private static List<List<ItemStack>> idToStackUn = Lists.newArrayList();
-    private static Map<Integer, List<Integer>> stackToId = Maps.newHashMap();
+    // Ore ids registered per stack key, the item id alone for wildcard entries or combined with the damage value
+    private static IntObjectHashMap<int[]> stackToId = new IntObjectHashMap<int[]>();
+    // The keys with a damage value in stackToId, per item id
+    private static IntObjectHashMap<int[]> damageKeys = new IntObjectHashMap<int[]>();
+    // The result of getOreIDs for keys with a damage value, the union of their ids with those of the wildcard key
+    private static volatile IntObjectHashMap<int[]> stackToIds = new IntObjectHashMap<int[]>();
+    private static final int[] NO_IDS = new int[0];
     public static final ImmutableList<ItemStack> EMPTY_LIST = ImmutableList.of();
 
     /**
@@ -314,6 +318,8 @@ public class OreDictionary
      * Gets all the integer ID for the ores that the specified item stakc is registered to.
      * If the item stack is not linked to any ore, this will return an empty array and no new entry will be created.
      *
+     * The returned array is shared and must not be modified.
+     *
      * @param stack The item stack of the ore.
      * @return An array of ids that this ore is registerd as.
      */
@@ -321,8 +327,6 @@ public class OreDictionary
     {
         if (stack == null || stack.getItem() == null) throw new IllegalArgumentException("Stack can not be null!");
 
-        Set<Integer> set = new HashSet<Integer>();
-
         // HACK: use the registry name's ID. It is unique and it knows about substitutions. Fallback to a -1 value (what Item.getIDForItem would have returned) in the case where the registry is not aware of the item yet
         // IT should be noted that -1 will fail the gate further down, if an entry already exists with value -1 for this name. This is what is broken and being warned about.
         // APPARENTLY it's quite common to do this. OreDictionary should be considered alongside Recipes - you can't make them properly until you've registered with the game.
@@ -337,16 +341,12 @@ public class OreDictionary
         {
             id = GameData.getItemRegistry().getId(registryName);
         }
-        List<Integer> ids = stackToId.get(id);
-        if (ids != null) set.addAll(ids);
-        ids = stackToId.get(id | ((stack.getItemDamage() + 1) << 16));
-        if (ids != null) set.addAll(ids);
-
-        Integer[] tmp = set.toArray(new Integer[set.size()]);
-        int[] ret = new int[tmp.length];
-        for (int x = 0; x < tmp.length; x++)
-            ret[x] = tmp[x];
-        return ret;
+        int[] ids = stackToIds.get(id | ((stack.getItemDamage() + 1) << 16));
+        if (ids == null)
+        {
+            ids = stackToIds.get(id);
+        }
+        return ids == null ? NO_IDS : ids;
     }
 
     /**
@@ -469,14 +469,8 @@ public class OreDictionary
         }
 
         //Add things to the baked version, and prevent duplicates
-        List<Integer> ids = stackToId.get(hash);
-        if (ids != null && ids.contains(oreID)) return;
-        if (ids == null)
-        {
-            ids = Lists.newArrayList();
-            stackToId.put(hash, ids);
-        }
-        ids.add(oreID);
+        if (!OreIdTables.addStackToId(stackToId, damageKeys, hash, oreID)) return;
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, hash, ore.getItemDamage() == WILDCARD_VALUE);
 
         //Add to the unbaked version
         ore = ore.copy();
@@ -499,7 +493,8 @@ public class OreDictionary
     public static void rebakeMap()
     {
         //System.out.println("Baking OreDictionary:");
-        stackToId.clear();
+        IntObjectHashMap<int[]> stackToId = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> damageKeys = new IntObjectHashMap<int[]>();
         for (int id = 0; id < idToStack.size(); id++)
         {
             List<ItemStack> ores = idToStack.get(id);
@@ -522,15 +517,19 @@ public class OreDictionary
                 {
                     hash |= ((ore.getItemDamage() + 1) << 16); // +1 so meta 0 is significant
                 }
-                List<Integer> ids = stackToId.get(hash);
-                if (ids == null)
-                {
-                    ids = Lists.newArrayList();
-                    stackToId.put(hash, ids);
-                }
-                ids.add(id);
+                OreIdTables.addStackToId(stackToId, damageKeys, hash, id);
                 //System.out.println(id + " " + getOreName(id) + " " + Integer.toHexString(hash) + " " + ore);
             }
         }
+
+        // Bake the lookup table wholesale and swap it in once complete
+        IntObjectHashMap<int[]> stackToIds = new IntObjectHashMap<int[]>(stackToId.size());
+        for (int hash : stackToId.keys())
+        {
+            OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, hash, false);
+        }
+        OreDictionary.stackToId = stackToId;
+        OreDictionary.damageKeys = damageKeys;
+        OreDictionary.stackToIds = stackToIds;
     }
 }
@@ -0,0 +1,97 @@
+package net.minecraftforge.oredict;
+
+import java.util.Arrays;
+
+import net.minecraftforge.common.util.IntObjectHashMap;
+
+/**
+ * Maintains the tables {@link OreDictionary#getOreIDs} is answered from. Keys are the item id alone for wildcard
+ * entries, or combined with the damage value + 1 in the upper 16 bits. Id arrays are kept sorted and free of
+ * duplicates. The damage keys of every item are indexed by item id, so a wildcard only has to visit its own item.
+ */
+final class OreIdTables
+{
+    private OreIdTables()
+    {
+    }
+
+    /**
+     * @return False if the ore id was already registered for the key
+     */
+    static boolean addStackToId(IntObjectHashMap<int[]> stackToId, IntObjectHashMap<int[]> damageKeys, int hash, int oreID)
+    {
+        int[] ids = stackToId.get(hash);
+        if (ids == null)
+        {
+            stackToId.put(hash, new int[] { oreID });
+            if (hash != (hash & 0xFFFF))
+            {
+                int[] keys = damageKeys.get(hash & 0xFFFF);
+                if (keys == null)
+                {
+                    keys = new int[] { hash };
+                }
+                else
+                {
+                    keys = Arrays.copyOf(keys, keys.length + 1);
+                    keys[keys.length - 1] = hash;
+                }
+                damageKeys.put(hash & 0xFFFF, keys);
+            }
+            return true;
+        }
+        for (int id : ids)
+        {
+            if (id == oreID) return false;
+        }
+        int[] added = Arrays.copyOf(ids, ids.length + 1);
+        added[ids.length] = oreID;
+        Arrays.sort(added);
+        stackToId.put(hash, added);
+        return true;
+    }
+
+    /**
+     * Updates the lookup entry of a key, and for wildcard keys those of every key with a damage value of the same item.
+     */
+    static void bakeStackToIds(IntObjectHashMap<int[]> stackToIds, IntObjectHashMap<int[]> stackToId, IntObjectHashMap<int[]> damageKeys, int hash, boolean wildcard)
+    {
+        if (wildcard)
+        {
+            stackToIds.put(hash, stackToId.get(hash));
+            int[] keys = damageKeys.get(hash & 0xFFFF);
+            if (keys != null)
+            {
+                for (int key : keys)
+                {
+                    if (key != hash)
+                    {
+                        bakeStackToIds(stackToIds, stackToId, damageKeys, key, false);
+                    }
+                }
+            }
+            return;
+        }
+        int[] ids = stackToId.get(hash);
+        int[] itemIds = stackToId.get(hash & 0xFFFF);
+        if (itemIds != null && hash != (hash & 0xFFFF))
+        {
+            ids = union(itemIds, ids);
+        }
+        stackToIds.put(hash, ids);
+    }
+
+    static int[] union(int[] a, int[] b)
+    {
+        int[] ret = new int[a.length + b.length];
+        int i = 0, j = 0, x = 0;
+        while (i < a.length || j < b.length)
+        {
+            int next = j >= b.length || (i < a.length && a[i] <= b[j]) ? a[i] : b[j];
+            if (i < a.length && a[i] == next) i++;
+            if (j < b.length && b[j] == next) j++;
+            ret[x++] = next;
+        }
+        return x == ret.length ? ret : Arrays.copyOf(ret, x);
+    }
+}
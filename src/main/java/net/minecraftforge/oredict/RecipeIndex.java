@@ -0,0 +1,260 @@
+package net.minecraftforge.oredict;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.item.crafting.ShapelessRecipes;
+import net.minecraft.world.World;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Finds the crafting recipe matching a grid without calling {@link IRecipe#matches} on every recipe.
+ * <p>
+ * Each recipe is indexed by one of its ingredients, under the item of an item stack or the id of an ore dictionary
+ * entry. Only the recipes indexed under an item or an ore id of a stack in the grid can match it. Recipes the index
+ * does not understand, and ingredients that are plain lists, are always checked. Subclasses of the vanilla and ore
+ * recipes may match differently, so only the exact classes are indexed. Ore ids are resolved when looking up, so
+ * registering ores never requires a rebuild. The index follows changes to the recipe list, appended recipes are
+ * indexed incrementally, any other change rebuilds it. A list that is not a {@link RecipeList} is verified on every
+ * lookup.
+ * <p>
+ * Candidates are checked in recipe list order, so the result is the same recipe {@link CraftingManager} would find.
+ */
+public class RecipeIndex
+{
+    private static List<IRecipe> indexedList;
+    private static IRecipe[] recipes = new IRecipe[0];
+    private static int size;
+    private static int modCount = -1;
+    private static final Map<Object, Positions> keyed = Maps.newHashMap();
+    private static final Positions unkeyed = new Positions();
+    private static IdentityHashMap<List<ItemStack>, Integer> oreLists = new IdentityHashMap<List<ItemStack>, Integer>();
+    private static Positions candidates = new Positions();
+
+    /**
+     * @return The first recipe that matches the grid, or null
+     */
+    public static synchronized IRecipe findMatchingRecipe(InventoryCrafting inv, World world)
+    {
+        update();
+        Positions found = candidates;
+        found.size = 0;
+        found.addAll(unkeyed);
+        for (int slot = 0; slot < inv.getSizeInventory(); slot++)
+        {
+            ItemStack stack = inv.getStackInSlot(slot);
+            if (stack == null || stack.getItem() == null)
+            {
+                continue;
+            }
+            found.addAll(keyed.get(stack.getItem()));
+            for (int ore : OreDictionary.getOreIDs(stack))
+            {
+                found.addAll(keyed.get(ore));
+            }
+        }
+
+        Arrays.sort(found.data, 0, found.size);
+        int last = -1;
+        for (int i = 0; i < found.size; i++)
+        {
+            int position = found.data[i];
+            if (position != last)
+            {
+                last = position;
+                if (recipes[position].matches(inv, world))
+                {
+                    return recipes[position];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indexed equivalent of {@link CraftingManager#findMatchingRecipe(InventoryCrafting, World)}.
+     */
+    public static ItemStack getCraftingResult(InventoryCrafting inv, World world)
+    {
+        IRecipe recipe = findMatchingRecipe(inv, world);
+        return recipe == null ? null : recipe.getCraftingResult(inv);
+    }
+
+    /**
+     * Indexed equivalent of {@link CraftingManager#func_180303_b(InventoryCrafting, World)}.
+     */
+    public static ItemStack[] getRemainingItems(InventoryCrafting inv, World world)
+    {
+        IRecipe recipe = findMatchingRecipe(inv, world);
+        if (recipe != null)
+        {
+            return recipe.getRemainingItems(inv);
+        }
+        ItemStack[] remaining = new ItemStack[inv.getSizeInventory()];
+        for (int i = 0; i < remaining.length; i++)
+        {
+            remaining[i] = inv.getStackInSlot(i);
+        }
+        return remaining;
+    }
+
+    /**
+     * Forces a rebuild on the next lookup. Only needed for changes to a recipe list that is not a {@link RecipeList}.
+     */
+    public static synchronized void invalidate()
+    {
+        indexedList = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void update()
+    {
+        List<IRecipe> list = CraftingManager.getInstance().getRecipeList();
+        int currentModCount = modCount(list);
+        if (list == indexedList && currentModCount == modCount && list.size() == size && (currentModCount != -1 || isPrefix(list, size)))
+        {
+            return;
+        }
+        if (list != indexedList || list.size() < size || !isPrefix(list, size))
+        {
+            indexedList = list;
+            size = 0;
+            keyed.clear();
+            unkeyed.size = 0;
+        }
+        if (recipes.length < list.size())
+        {
+            recipes = Arrays.copyOf(recipes, Math.max(list.size(), recipes.length * 2));
+        }
+        oreLists = null;
+        for (; size < list.size(); size++)
+        {
+            recipes[size] = list.get(size);
+            index(recipes[size], size);
+        }
+        Arrays.fill(recipes, size, recipes.length, null);
+        modCount = currentModCount;
+    }
+
+    /**
+     * @return The modification count of the list, or -1 if it is not a {@link RecipeList} and has to be verified
+     */
+    private static int modCount(List<IRecipe> list)
+    {
+        return list instanceof RecipeList ? ((RecipeList)list).getModCount() : -1;
+    }
+
+    private static boolean isPrefix(List<IRecipe> list, int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (list.get(i) != recipes[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void index(IRecipe recipe, int position)
+    {
+        Object[] ingredients;
+        Class<?> cls = recipe.getClass();
+        if (cls == ShapedRecipes.class)
+        {
+            ingredients = ((ShapedRecipes)recipe).recipeItems;
+        }
+        else if (cls == ShapelessRecipes.class)
+        {
+            ingredients = ((ShapelessRecipes)recipe).recipeItems.toArray();
+        }
+        else if (cls == ShapedOreRecipe.class)
+        {
+            ingredients = ((ShapedOreRecipe)recipe).getInput();
+        }
+        else if (cls == ShapelessOreRecipe.class)
+        {
+            ingredients = ((ShapelessOreRecipe)recipe).getInput().toArray();
+        }
+        else
+        {
+            ingredients = null;
+        }
+
+        // Any single ingredient will do, prefer an item over an ore over checking the recipe every time
+        Object key = null;
+        if (ingredients != null)
+        {
+            for (Object ingredient : ingredients)
+            {
+                if (ingredient instanceof ItemStack && ((ItemStack)ingredient).getItem() != null)
+                {
+                    key = ((ItemStack)ingredient).getItem();
+                    break;
+                }
+                else if (ingredient instanceof List && key == null)
+                {
+                    key = oreId((List<ItemStack>)ingredient);
+                }
+            }
+        }
+        Positions positions = key == null ? unkeyed : keyed.get(key);
+        if (positions == null)
+        {
+            positions = new Positions();
+            keyed.put(key, positions);
+        }
+        positions.add(position);
+    }
+
+    private static Integer oreId(List<ItemStack> list)
+    {
+        if (oreLists == null)
+        {
+            oreLists = new IdentityHashMap<List<ItemStack>, Integer>();
+            for (String name : OreDictionary.getOreNames())
+            {
+                oreLists.put(OreDictionary.getOres(name), OreDictionary.getOreID(name));
+            }
+        }
+        return oreLists.get(list);
+    }
+
+    private static class Positions
+    {
+        int[] data = new int[4];
+        int size;
+
+        void add(int position)
+        {
+            if (size == data.length)
+            {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = position;
+        }
+
+        void addAll(Positions other)
+        {
+            if (other == null)
+            {
+                return;
+            }
+            if (size + other.size > data.length)
+            {
+                data = Arrays.copyOf(data, Math.max(size + other.size, data.length * 2));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+    }
+}
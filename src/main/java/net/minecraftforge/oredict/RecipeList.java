@@ -0,0 +1,33 @@
+package net.minecraftforge.oredict;
+
+import java.util.ArrayList;
+
+import net.minecraft.item.crafting.IRecipe;
+
+/**
+ * The recipe list of {@link net.minecraft.item.crafting.CraftingManager}. Unlike {@link ArrayList} it counts replacing
+ * a recipe with {@link #set} as a change, so {@link RecipeIndex} notices every change by {@link #getModCount()}.
+ * <p>
+ * Replacements are counted separately from modCount, which iterators check. Replacing through
+ * {@link java.util.ListIterator#set}, as sorting does on Java 6 and 7, must keep working while iterating.
+ */
+@SuppressWarnings("serial")
+public class RecipeList extends ArrayList<IRecipe>
+{
+    private int replacements;
+
+    @Override
+    public IRecipe set(int index, IRecipe recipe)
+    {
+        replacements++;
+        return super.set(index, recipe);
+    }
+
+    /**
+     * @return A count that changes with every structural change and every replaced recipe
+     */
+    int getModCount()
+    {
+        return modCount + replacements;
+    }
+}
@@ -149,6 +149,7 @@ public class RecipeSorter implements Comparator<IRecipe>
         FMLLog.fine("Sorting recipies");
         warned.clear();
         Collections.sort(CraftingManager.getInstance().getRecipeList(), INSTANCE);
+        RecipeIndex.invalidate();
     }
 
     public static void register(String name, Class<?> recipe, Category category, String dependancies)
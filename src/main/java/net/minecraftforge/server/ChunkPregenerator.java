@@ -0,0 +1,433 @@
+package net.minecraftforge.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.world.ChunkCoordIntPair;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.gen.ChunkProviderServer;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import org.apache.logging.log4j.Level;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Generates the terrain of square areas ahead of time, a little every server tick.
+ * <p>
+ * Each tick the running tasks load chunks until {@value #TICK_BUDGET_PROPERTY} milliseconds are used up. A position is
+ * done when the 2x2 chunks it populates are loaded, positions that are populated already are skipped. Chunks loaded
+ * by a task are dropped again once more than {@value #MAX_LOADED_PROPERTY} are held, to be saved through the chunk
+ * save queue, and no chunks are loaded while that queue is backed up. Progress is checkpointed to forge_pregen.dat in
+ * the save, so running tasks resume when the server starts again. Controlled through /forge pregen.
+ */
+public class ChunkPregenerator
+{
+    public static final String TICK_BUDGET_PROPERTY = "forge.pregen.tickBudget";
+    public static final String MAX_LOADED_PROPERTY = "forge.pregen.maxLoaded";
+
+    private static final long TICK_BUDGET = Long.getLong(TICK_BUDGET_PROPERTY, 20) * 1000000L;
+    private static final int MAX_LOADED = Integer.getInteger(MAX_LOADED_PROPERTY, 1024);
+    private static final int MAX_PENDING_SAVES = 4096;
+    private static final int CHECKPOINT_INTERVAL = 600;
+
+    private static final ChunkPregenerator INSTANCE = new ChunkPregenerator();
+
+    private final Map<Integer, Task> tasks = Maps.newTreeMap();
+    private int ticks;
+
+    public static enum Shape
+    {
+        /** Outwards from the center, so the area around it is done first */
+        SPIRAL,
+        /** Row by row, keeping the chunks that are loaded together in few region files */
+        SQUARE
+    }
+
+    public static class Task
+    {
+        private final int dimension;
+        private final int centerX;
+        private final int centerZ;
+        private final int radius;
+        private final Shape shape;
+        private final long total;
+        private long position;
+        private long generated;
+        // Chunks this task holds, with the position that loaded them
+        private final LinkedHashMap<Long, Long> loaded = new LinkedHashMap<Long, Long>();
+        // For the rate, counted since the task was started or resumed
+        private long startPosition;
+        private long startTime = System.nanoTime();
+        private int x;
+        private int z;
+
+        public Task(int dimension, int centerX, int centerZ, int radius, Shape shape)
+        {
+            this.dimension = dimension;
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.radius = radius;
+            this.shape = shape;
+            this.total = (2L * radius + 1) * (2L * radius + 1);
+        }
+
+        public int getDimension() { return dimension; }
+        public int getCenterX() { return centerX; }
+        public int getCenterZ() { return centerZ; }
+        public int getRadius() { return radius; }
+        public Shape getShape() { return shape; }
+        public long getTotal() { return total; }
+        public long getPosition() { return position; }
+        public boolean isDone() { return position >= total; }
+
+        /**
+         * @return How many chunks had to be generated or loaded, the others already existed
+         */
+        public long getGenerated() { return generated; }
+
+        /**
+         * @return Positions done per second since the task was started or resumed
+         */
+        public double getRate()
+        {
+            double seconds = (System.nanoTime() - startTime) / 1.0E9D;
+            return seconds <= 0 ? 0 : (position - startPosition) / seconds;
+        }
+
+        /**
+         * @return Estimated seconds until the task is done, or -1 if unknown
+         */
+        public long getEta()
+        {
+            double rate = getRate();
+            return rate <= 0 ? -1 : (long)((total - position) / rate);
+        }
+
+        private void run(WorldServer world, long deadline)
+        {
+            ChunkProviderServer provider = world.theChunkProviderServer;
+            AnvilChunkLoader loader = provider.currentChunkLoader instanceof AnvilChunkLoader ? (AnvilChunkLoader)provider.currentChunkLoader : null;
+            while (!isDone() && System.nanoTime() < deadline)
+            {
+                if (loader != null && loader.getSaveQueue().size() > MAX_PENDING_SAVES)
+                {
+                    // Let the writers catch up before loading more
+                    return;
+                }
+                locate(position);
+                if (!isPopulated(provider, loader, x, z))
+                {
+                    load(provider, x, z);
+                    load(provider, x + 1, z);
+                    load(provider, x, z + 1);
+                    load(provider, x + 1, z + 1);
+                }
+                position++;
+                if (loaded.size() > MAX_LOADED)
+                {
+                    drop(world, MAX_LOADED / 2);
+                }
+            }
+            if (isDone())
+            {
+                drop(world, 0);
+            }
+        }
+
+        /**
+         * Existing chunks around a position do not mean it was populated, an area saved earlier may end at it. Only
+         * when they all exist the chunk itself is loaded to look at its flag.
+         */
+        private boolean isPopulated(ChunkProviderServer provider, AnvilChunkLoader loader, int x, int z)
+        {
+            if (!exists(provider, loader, x, z) || !exists(provider, loader, x + 1, z) || !exists(provider, loader, x, z + 1) || !exists(provider, loader, x + 1, z + 1))
+            {
+                return false;
+            }
+            load(provider, x, z);
+            return provider.provideChunk(x, z).isTerrainPopulated();
+        }
+
+        private boolean exists(ChunkProviderServer provider, AnvilChunkLoader loader, int x, int z)
+        {
+            return provider.chunkExists(x, z) || (loader != null && loader.chunkExists(provider.worldObj, x, z));
+        }
+
+        private void load(ChunkProviderServer provider, int x, int z)
+        {
+            if (!provider.chunkExists(x, z))
+            {
+                provider.loadChunk(x, z);
+                loaded.put(ChunkCoordIntPair.chunkXZ2Int(x, z), position);
+                generated++;
+            }
+        }
+
+        /**
+         * Drops the chunks this task loaded longest ago, they are saved when the world unloads them. Chunks a player
+         * has come close to in the meantime are left to the player manager.
+         */
+        private void drop(WorldServer world, int keep)
+        {
+            Iterator<Long> itr = loaded.keySet().iterator();
+            while (loaded.size() > keep && itr.hasNext())
+            {
+                long key = itr.next();
+                int x = (int)key;
+                int z = (int)(key >> 32);
+                if (!world.getPlayerManager().hasPlayerInstance(x, z))
+                {
+                    world.theChunkProviderServer.dropChunk(x, z);
+                }
+                itr.remove();
+            }
+        }
+
+        /**
+         * Moves to the chunk of a position, see {@link #getX()} and {@link #getZ()}.
+         */
+        void locate(long index)
+        {
+            if (shape == Shape.SQUARE)
+            {
+                long side = 2L * radius + 1;
+                x = centerX + (int)(index % side) - radius;
+                z = centerZ + (int)(index / side) - radius;
+                return;
+            }
+            if (index == 0)
+            {
+                x = centerX;
+                z = centerZ;
+                return;
+            }
+            // Square spiral: ring k holds the positions (2k-1)^2 to (2k+1)^2 - 1
+            long n = index + 1;
+            int k = (int)Math.ceil((Math.sqrt(n) - 1) / 2);
+            long t = 2L * k + 1;
+            long m = t * t;
+            t--;
+            if (n >= m - t)
+            {
+                x = centerX + (int)(k - (m - n));
+                z = centerZ - k;
+                return;
+            }
+            m -= t;
+            if (n >= m - t)
+            {
+                x = centerX - k;
+                z = centerZ + (int)(-k + (m - n));
+                return;
+            }
+            m -= t;
+            if (n >= m - t)
+            {
+                x = centerX + (int)(-k + (m - n));
+                z = centerZ + k;
+                return;
+            }
+            x = centerX + k;
+            z = centerZ + (int)(k - (m - n - t));
+        }
+
+        int getX() { return x; }
+        int getZ() { return z; }
+
+        /**
+         * Chunks still held have not been saved yet, so a resumed task has to start with the position that loaded the
+         * oldest of them.
+         */
+        private long getSavedPosition()
+        {
+            return loaded.isEmpty() ? position : loaded.values().iterator().next();
+        }
+
+        private NBTTagCompound write()
+        {
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setInteger("Dimension", dimension);
+            tag.setInteger("CenterX", centerX);
+            tag.setInteger("CenterZ", centerZ);
+            tag.setInteger("Radius", radius);
+            tag.setString("Shape", shape.name());
+            tag.setLong("Position", getSavedPosition());
+            tag.setLong("Generated", generated);
+            return tag;
+        }
+
+        private static Task read(NBTTagCompound tag)
+        {
+            Task task = new Task(tag.getInteger("Dimension"), tag.getInteger("CenterX"), tag.getInteger("CenterZ"), tag.getInteger("Radius"), Shape.valueOf(tag.getString("Shape")));
+            task.position = task.startPosition = tag.getLong("Position");
+            task.generated = tag.getLong("Generated");
+            return task;
+        }
+    }
+
+    /**
+     * Starts generating the area around a chunk.
+     *
+     * @return The new task, or null if the dimension already has one running
+     */
+    public static Task start(int dimension, int centerX, int centerZ, int radius, Shape shape)
+    {
+        if (INSTANCE.tasks.containsKey(dimension))
+        {
+            return null;
+        }
+        Task task = new Task(dimension, centerX, centerZ, radius, shape);
+        INSTANCE.tasks.put(dimension, task);
+        INSTANCE.checkpoint();
+        return task;
+    }
+
+    /**
+     * @return The stopped task, or null if the dimension had none running
+     */
+    public static Task stop(int dimension)
+    {
+        Task task = INSTANCE.tasks.remove(dimension);
+        if (task != null)
+        {
+            WorldServer world = DimensionManager.getWorld(dimension);
+            if (world != null)
+            {
+                task.drop(world, 0);
+            }
+            INSTANCE.checkpoint();
+        }
+        return task;
+    }
+
+    public static Collection<Task> getTasks()
+    {
+        return Collections.unmodifiableCollection(INSTANCE.tasks.values());
+    }
+
+    /**
+     * Resumes the tasks checkpointed in the save. Called when the server starts.
+     */
+    public static void serverStarting()
+    {
+        INSTANCE.tasks.clear();
+        INSTANCE.ticks = 0;
+        try
+        {
+            NBTTagCompound tag = CompressedStreamTools.read(checkpointFile());
+            if (tag != null)
+            {
+                NBTTagList list = tag.getTagList("Tasks", 10);
+                for (int i = 0; i < list.tagCount(); i++)
+                {
+                    Task task = Task.read(list.getCompoundTagAt(i));
+                    if (!DimensionManager.isDimensionRegistered(task.dimension))
+                    {
+                        FMLLog.warning("Dropping the pre-generation of dimension %d, the dimension no longer exists", task.dimension);
+                        continue;
+                    }
+                    INSTANCE.tasks.put(task.dimension, task);
+                    FMLLog.info("Resuming the pre-generation of dimension %d at %d of %d positions", task.dimension, task.position, task.total);
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            FMLLog.log(Level.ERROR, e, "Unable to read the pre-generation checkpoint, pre-generation will not resume");
+        }
+        MinecraftForge.EVENT_BUS.register(INSTANCE);
+    }
+
+    /**
+     * Checkpoints the running tasks. Called when the server stops.
+     */
+    public static void serverStopping()
+    {
+        MinecraftForge.EVENT_BUS.unregister(INSTANCE);
+        INSTANCE.checkpoint();
+        INSTANCE.tasks.clear();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END || tasks.isEmpty())
+        {
+            return;
+        }
+        long deadline = System.nanoTime() + TICK_BUDGET;
+        Iterator<Task> itr = tasks.values().iterator();
+        while (itr.hasNext() && System.nanoTime() < deadline)
+        {
+            Task task = itr.next();
+            WorldServer world = DimensionManager.getWorld(task.dimension);
+            if (world == null)
+            {
+                // Dimensions without players unload, bring it back to keep going
+                DimensionManager.initDimension(task.dimension);
+                world = DimensionManager.getWorld(task.dimension);
+                if (world == null)
+                {
+                    FMLLog.warning("Stopping the pre-generation of dimension %d, the dimension could not be loaded", task.dimension);
+                    itr.remove();
+                    continue;
+                }
+            }
+            task.run(world, deadline);
+            if (task.isDone())
+            {
+                FMLLog.info("Finished the pre-generation of dimension %d, %d chunks generated", task.dimension, task.generated);
+                itr.remove();
+                checkpoint();
+            }
+        }
+        if (++ticks % CHECKPOINT_INTERVAL == 0)
+        {
+            checkpoint();
+        }
+    }
+
+    private void checkpoint()
+    {
+        File file = checkpointFile();
+        try
+        {
+            if (tasks.isEmpty())
+            {
+                file.delete();
+                return;
+            }
+            NBTTagList list = new NBTTagList();
+            for (Task task : tasks.values())
+            {
+                list.appendTag(task.write());
+            }
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setTag("Tasks", list);
+            CompressedStreamTools.safeWrite(tag, file);
+        }
+        catch (IOException e)
+        {
+            FMLLog.log(Level.ERROR, e, "Unable to checkpoint the pre-generation progress");
+        }
+    }
+
+    private static File checkpointFile()
+    {
+        return new File(DimensionManager.getCurrentSaveRootDirectory(), "forge_pregen.dat");
+    }
+}
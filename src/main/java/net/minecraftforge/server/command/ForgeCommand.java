@@ -12,6 +12,8 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.BlockPos;
 import net.minecraft.util.ChatComponentTranslation;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.common.eventhandler.EventProfiler;
+import net.minecraftforge.server.ChunkPregenerator;
 import net.minecraftforge.server.ForgeTimeTracker;
 
 public class ForgeCommand extends CommandBase {
@@ -64,6 +66,14 @@ public class ForgeCommand extends CommandBase {
         {
             handleTracking(sender, args);
         }
+        else if ("eventprofile".equals(args[0]))
+        {
+            handleEventProfile(sender, args);
+        }
+        else if ("pregen".equals(args[0]))
+        {
+            handlePregen(sender, args);
+        }
         else
         {
             throw new WrongUsageException("commands.forge.usage");
@@ -75,7 +85,7 @@ public class ForgeCommand extends CommandBase {
     {
         if (args.length == 1)
         {
-            return getListOfStringsMatchingLastWord(args, "tps", "track");
+            return getListOfStringsMatchingLastWord(args, "tps", "track", "eventprofile", "pregen");
         }
         else if (args.length == 2)
         {
@@ -86,6 +96,22 @@ public class ForgeCommand extends CommandBase {
             {
                 return getListOfStringsMatchingLastWord(args, "te");
             }
+            else if ("eventprofile".equals(args[0]))
+            {
+                return getListOfStringsMatchingLastWord(args, "start", "stop", "reset", "report");
+            }
+            else if ("pregen".equals(args[0]))
+            {
+                return getListOfStringsMatchingLastWord(args, "start", "stop", "status");
+            }
+        }
+        else if (args.length == 7 && "pregen".equals(args[0]) && "start".equals(args[1]))
+        {
+            return getListOfStringsMatchingLastWord(args, "spiral", "square");
+        }
+        else if (args.length == 3 && "eventprofile".equals(args[0]) && "start".equals(args[1]))
+        {
+            return getListOfStringsMatchingLastWord(args, "alloc");
         }
         return null;
     }
@@ -109,6 +135,119 @@ public class ForgeCommand extends CommandBase {
         }
     }
 
+    private void handleEventProfile(ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 2)
+        {
+            throw new WrongUsageException("commands.forge.usage.eventprofile");
+        }
+        EventProfiler profiler = EventProfiler.instance();
+        String action = args[1];
+
+        if ("start".equals(action))
+        {
+            profiler.setTrackingAllocations(args.length > 2 && "alloc".equals(args[2]));
+            profiler.reset();
+            profiler.setEnabled(true);
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.eventprofile.started"));
+        }
+        else if ("stop".equals(action))
+        {
+            profiler.setEnabled(false);
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.eventprofile.stopped"));
+        }
+        else if ("reset".equals(action))
+        {
+            profiler.reset();
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.eventprofile.reset"));
+        }
+        else if ("report".equals(action))
+        {
+            int count = args.length > 2 ? parseInt(args[2], 1, 100) : 10;
+            List<EventProfiler.Stats> listeners = profiler.getListenerStats();
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.eventprofile.report", Math.min(count, listeners.size()), listeners.size()));
+            for (int x = 0; x < count && x < listeners.size(); x++)
+            {
+                EventProfiler.Stats stats = listeners.get(x);
+                double total = stats.getNanos() * 1.0E-6D;
+                double mean = stats.getCalls() == 0 ? 0 : stats.getNanos() * 1.0E-3D / stats.getCalls();
+                sender.addChatMessage(new ChatComponentTranslation("commands.forge.eventprofile.entry", stats.getOwner(), stats.getName(),
+                        stats.getCalls(), timeFormatter.format(total), timeFormatter.format(mean), stats.getBytes()));
+            }
+        }
+        else
+        {
+            throw new WrongUsageException("commands.forge.usage.eventprofile");
+        }
+    }
+
+    private void handlePregen(ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length < 2)
+        {
+            throw new WrongUsageException("commands.forge.usage.pregen");
+        }
+        String action = args[1];
+
+        if ("start".equals(action) && (args.length == 6 || args.length == 7))
+        {
+            int dim = parseInt(args[2]);
+            if (!DimensionManager.isDimensionRegistered(dim))
+            {
+                throw new CommandException("commands.forge.pregen.nodim", dim);
+            }
+            int x = parseInt(args[3]) >> 4;
+            int z = parseInt(args[4]) >> 4;
+            int radius = parseInt(args[5], 0, 4096);
+            ChunkPregenerator.Shape shape = ChunkPregenerator.Shape.SPIRAL;
+            if (args.length == 7)
+            {
+                if ("square".equals(args[6]))
+                {
+                    shape = ChunkPregenerator.Shape.SQUARE;
+                }
+                else if (!"spiral".equals(args[6]))
+                {
+                    throw new WrongUsageException("commands.forge.usage.pregen");
+                }
+            }
+            ChunkPregenerator.Task task = ChunkPregenerator.start(dim, x, z, radius, shape);
+            if (task == null)
+            {
+                throw new CommandException("commands.forge.pregen.running", dim);
+            }
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.pregen.started", dim, task.getTotal()));
+        }
+        else if ("stop".equals(action) && args.length == 3)
+        {
+            int dim = parseInt(args[2]);
+            ChunkPregenerator.Task task = ChunkPregenerator.stop(dim);
+            if (task == null)
+            {
+                throw new CommandException("commands.forge.pregen.notrunning", dim);
+            }
+            sender.addChatMessage(new ChatComponentTranslation("commands.forge.pregen.stopped", dim, task.getPosition(), task.getTotal()));
+        }
+        else if ("status".equals(action))
+        {
+            if (ChunkPregenerator.getTasks().isEmpty())
+            {
+                sender.addChatMessage(new ChatComponentTranslation("commands.forge.pregen.idle"));
+            }
+            for (ChunkPregenerator.Task task : ChunkPregenerator.getTasks())
+            {
+                long eta = task.getEta();
+                String etaText = eta < 0 ? "?" : String.format("%d:%02d:%02d", eta / 3600, eta / 60 % 60, eta % 60);
+                sender.addChatMessage(new ChatComponentTranslation("commands.forge.pregen.status", task.getDimension(), task.getPosition(), task.getTotal(),
+                        String.format("%.1f", task.getPosition() * 100.0D / task.getTotal()), task.getGenerated(), String.format("%.1f", task.getRate()), etaText));
+            }
+        }
+        else
+        {
+            throw new WrongUsageException("commands.forge.usage.pregen");
+        }
+    }
+
     private void doTurnOnTileEntityTracking(ICommandSender sender, int duration)
     {
         ForgeTimeTracker.tileEntityTrackingDuration = duration;
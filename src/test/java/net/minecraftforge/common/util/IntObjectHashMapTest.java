@@ -0,0 +1,104 @@
+package net.minecraftforge.common.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntObjectHashMapTest
+{
+    @Test
+    public void testPutAndGet()
+    {
+        IntObjectHashMap<String> map = new IntObjectHashMap<String>();
+        assertNull("empty map has no 0", map.get(0));
+        assertNull("first put returns null", map.put(0, "zero"));
+        assertNull(map.put(-1, "minus one"));
+        assertNull(map.put(Integer.MIN_VALUE, "min"));
+        assertEquals("zero", map.get(0));
+        assertEquals("minus one", map.get(-1));
+        assertEquals("min", map.get(Integer.MIN_VALUE));
+        assertEquals("replacing returns the old value", "zero", map.put(0, "nil"));
+        assertEquals("nil", map.get(0));
+        assertEquals("replacing does not grow the map", 3, map.size());
+        assertNull(map.get(1));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValue()
+    {
+        new IntObjectHashMap<String>().put(1, null);
+    }
+
+    @Test
+    public void testOreKeys()
+    {
+        // Ore dictionary keys, the same item id with different damage values in the upper bits
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<Integer>();
+        for (int meta = 0; meta < 1000; meta++)
+        {
+            map.put(42 | ((meta + 1) << 16), meta);
+        }
+        map.put(42, -1);
+        for (int meta = 0; meta < 1000; meta++)
+        {
+            assertEquals(Integer.valueOf(meta), map.get(42 | ((meta + 1) << 16)));
+        }
+        assertEquals(Integer.valueOf(-1), map.get(42));
+        assertNull(map.get(43 | (1 << 16)));
+        assertEquals(1001, map.size());
+    }
+
+    @Test
+    public void testRehashAgainstHashMap()
+    {
+        Random rand = new Random(1234);
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<Integer>(1);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 20000; i++)
+        {
+            int key = rand.nextInt(5000) - 2500;
+            assertEquals(expected.put(key, i), map.put(key, i));
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -3000; key < 3000; key++)
+        {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+        int[] expectedKeys = new int[expected.size()];
+        int x = 0;
+        for (int key : expected.keySet())
+        {
+            expectedKeys[x++] = key;
+        }
+        Arrays.sort(expectedKeys);
+        assertArrayEquals(expectedKeys, keys);
+    }
+
+    @Test
+    public void testClear()
+    {
+        IntObjectHashMap<String> map = new IntObjectHashMap<String>();
+        for (int i = 0; i < 100; i++)
+        {
+            map.put(i, "v" + i);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.keys().length);
+        for (int i = 0; i < 100; i++)
+        {
+            assertNull(map.get(i));
+        }
+        map.put(5, "five");
+        assertEquals("five", map.get(5));
+        assertEquals(1, map.size());
+    }
+}
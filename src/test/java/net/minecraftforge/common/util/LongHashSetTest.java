@@ -0,0 +1,102 @@
+package net.minecraftforge.common.util;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class LongHashSetTest
+{
+    private static long chunk(int x, int z)
+    {
+        return (x & 0xFFFFFFFFL) | ((z & 0xFFFFFFFFL) << 32);
+    }
+
+    @Test
+    public void testZero()
+    {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse("adding twice", set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testChunkCoordinates()
+    {
+        LongHashSet set = new LongHashSet();
+        for (int x = -20; x <= 20; x++)
+        {
+            for (int z = -20; z <= 20; z++)
+            {
+                assertTrue(set.add(chunk(x, z)));
+            }
+        }
+        assertEquals(41 * 41, set.size());
+        for (int x = -25; x <= 25; x++)
+        {
+            for (int z = -25; z <= 25; z++)
+            {
+                assertEquals(Math.abs(x) <= 20 && Math.abs(z) <= 20, set.contains(chunk(x, z)));
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveAgainstHashSet()
+    {
+        // A small range of values and a small table keep the probe chains long, so removals shift values back a lot
+        Random rand = new Random(4321);
+        LongHashSet set = new LongHashSet(1);
+        Set<Long> expected = new HashSet<Long>();
+        for (int i = 0; i < 200000; i++)
+        {
+            long value = chunk(rand.nextInt(40) - 20, rand.nextInt(40) - 20);
+            if (rand.nextInt(3) == 0)
+            {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+            else
+            {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            if (i % 1000 == 0)
+            {
+                assertEquals(expected.size(), set.size());
+                for (int x = -20; x < 20; x++)
+                {
+                    for (int z = -20; z < 20; z++)
+                    {
+                        assertEquals(expected.contains(chunk(x, z)), set.contains(chunk(x, z)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClear()
+    {
+        LongHashSet set = new LongHashSet();
+        for (long i = 0; i < 100; i++)
+        {
+            set.add(i);
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+        for (long i = 0; i < 100; i++)
+        {
+            assertFalse(set.contains(i));
+        }
+        assertTrue(set.add(7));
+        assertEquals(1, set.size());
+    }
+}
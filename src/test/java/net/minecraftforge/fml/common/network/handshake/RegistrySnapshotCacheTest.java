@@ -0,0 +1,159 @@
+package net.minecraftforge.fml.common.network.handshake;
+
+import static org.junit.Assert.*;
+
+import io.netty.buffer.Unpooled;
+
+import java.util.Map;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.registry.PersistentRegistryManager.GameDataSnapshot;
+
+import org.junit.Test;
+
+public class RegistrySnapshotCacheTest
+{
+    private static final ResourceLocation BLOCKS = new ResourceLocation("minecraft:blocks");
+    private static final ResourceLocation ITEMS = new ResourceLocation("minecraft:items");
+    private static final ResourceLocation FLUIDS = new ResourceLocation("test:fluids");
+
+    private static GameDataSnapshot.Entry entry(GameDataSnapshot snapshot, ResourceLocation registry)
+    {
+        GameDataSnapshot.Entry entry = new GameDataSnapshot.Entry();
+        snapshot.entries.put(registry, entry);
+        return entry;
+    }
+
+    private static void id(GameDataSnapshot.Entry entry, String name, int id)
+    {
+        entry.ids.put(new ResourceLocation(name), id);
+    }
+
+    private static GameDataSnapshot sample()
+    {
+        GameDataSnapshot snapshot = new GameDataSnapshot();
+        GameDataSnapshot.Entry blocks = entry(snapshot, BLOCKS);
+        id(blocks, "minecraft:stone", 1);
+        id(blocks, "minecraft:stone_slab", 44);
+        id(blocks, "minecraft:stone_stairs", 67);
+        id(blocks, "test:ore", 300);
+        blocks.substitutions.add(new ResourceLocation("minecraft:stone"));
+        blocks.dummied.add(new ResourceLocation("test:removed"));
+        GameDataSnapshot.Entry items = entry(snapshot, ITEMS);
+        id(items, "minecraft:stick", 280);
+        id(items, "test:ingot", 4096);
+        return snapshot;
+    }
+
+    private static GameDataSnapshot decode(byte[] raw)
+    {
+        return RegistrySnapshotCache.decode(Unpooled.wrappedBuffer(raw));
+    }
+
+    private static GameDataSnapshot applyDelta(GameDataSnapshot base, GameDataSnapshot snapshot)
+    {
+        return RegistrySnapshotCache.applyDelta(base, Unpooled.wrappedBuffer(RegistrySnapshotCache.encodeDelta(base, snapshot)));
+    }
+
+    private static void assertSameContent(GameDataSnapshot expected, GameDataSnapshot actual)
+    {
+        assertEquals(expected.entries.keySet(), actual.entries.keySet());
+        for (Map.Entry<ResourceLocation, GameDataSnapshot.Entry> entry : expected.entries.entrySet())
+        {
+            GameDataSnapshot.Entry other = actual.entries.get(entry.getKey());
+            assertEquals(entry.getKey() + " ids", entry.getValue().ids, other.ids);
+            assertEquals(entry.getKey() + " substitutions", entry.getValue().substitutions, other.substitutions);
+            assertEquals(entry.getKey() + " dummied", entry.getValue().dummied, other.dummied);
+        }
+        // The client checks the server's hash against its own encoding of the result
+        assertEquals(RegistrySnapshotCache.hash(RegistrySnapshotCache.encode(expected)), RegistrySnapshotCache.hash(RegistrySnapshotCache.encode(actual)));
+    }
+
+    @Test
+    public void testRoundTrip()
+    {
+        GameDataSnapshot snapshot = sample();
+        assertSameContent(snapshot, decode(RegistrySnapshotCache.encode(snapshot)));
+    }
+
+    @Test
+    public void testEmptyRoundTrip()
+    {
+        GameDataSnapshot snapshot = new GameDataSnapshot();
+        assertSameContent(snapshot, decode(RegistrySnapshotCache.encode(snapshot)));
+        entry(snapshot, BLOCKS);
+        assertSameContent(snapshot, decode(RegistrySnapshotCache.encode(snapshot)));
+    }
+
+    @Test
+    public void testEncodingIgnoresOrder()
+    {
+        GameDataSnapshot a = new GameDataSnapshot();
+        id(entry(a, BLOCKS), "minecraft:stone", 1);
+        id(a.entries.get(BLOCKS), "minecraft:dirt", 3);
+        id(entry(a, ITEMS), "minecraft:stick", 280);
+        GameDataSnapshot b = new GameDataSnapshot();
+        id(entry(b, ITEMS), "minecraft:stick", 280);
+        id(entry(b, BLOCKS), "minecraft:dirt", 3);
+        id(b.entries.get(BLOCKS), "minecraft:stone", 1);
+        assertArrayEquals(RegistrySnapshotCache.encode(a), RegistrySnapshotCache.encode(b));
+    }
+
+    @Test
+    public void testDeltaRemovedAndRenumbered()
+    {
+        GameDataSnapshot base = sample();
+        GameDataSnapshot snapshot = sample();
+        GameDataSnapshot.Entry blocks = snapshot.entries.get(BLOCKS);
+        blocks.ids.remove(new ResourceLocation("minecraft:stone_slab"));
+        id(blocks, "minecraft:stone_stairs", 68);
+        id(blocks, "test:ore", 44);
+        id(blocks, "test:ore_dense", 301);
+        blocks.substitutions.clear();
+        blocks.dummied.add(new ResourceLocation("test:gone"));
+        snapshot.entries.get(ITEMS).ids.clear();
+
+        assertSameContent(snapshot, applyDelta(base, snapshot));
+    }
+
+    @Test
+    public void testDeltaUnchanged()
+    {
+        assertSameContent(sample(), applyDelta(sample(), sample()));
+    }
+
+    @Test
+    public void testDeltaRegistryMissingFromBase()
+    {
+        GameDataSnapshot base = sample();
+        base.entries.remove(ITEMS);
+        GameDataSnapshot snapshot = sample();
+        snapshot.entries.remove(BLOCKS);
+        id(entry(snapshot, FLUIDS), "test:oil", 0);
+
+        GameDataSnapshot result = applyDelta(base, snapshot);
+        assertSameContent(snapshot, result);
+        assertFalse("registries only in the base are dropped", result.entries.containsKey(BLOCKS));
+    }
+
+    @Test
+    public void testSurrogatePairAtPrefixBoundary()
+    {
+        // The names share a high surrogate, a prefix ending there would leave the suffix starting with a lone low one
+        GameDataSnapshot snapshot = new GameDataSnapshot();
+        GameDataSnapshot.Entry blocks = entry(snapshot, BLOCKS);
+        id(blocks, "test:a\uD83D\uDE00", 1);
+        id(blocks, "test:a\uD83D\uDE01", 2);
+        id(blocks, "test:a\uD83D\uDE01b", 3);
+        id(blocks, "test:a\uD83D\uDE02\uD83D\uDE00", 4);
+        blocks.dummied.add(new ResourceLocation("test:\uD83D\uDE00"));
+        blocks.dummied.add(new ResourceLocation("test:\uD83D\uDE01"));
+        assertSameContent(snapshot, decode(RegistrySnapshotCache.encode(snapshot)));
+
+        GameDataSnapshot base = new GameDataSnapshot();
+        GameDataSnapshot.Entry baseBlocks = entry(base, BLOCKS);
+        id(baseBlocks, "test:a\uD83D\uDE00", 1);
+        id(baseBlocks, "test:a\uD83D\uDE03", 5);
+        assertSameContent(snapshot, applyDelta(base, snapshot));
+    }
+}
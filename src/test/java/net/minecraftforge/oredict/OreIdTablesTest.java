@@ -0,0 +1,95 @@
+package net.minecraftforge.oredict;
+
+import static org.junit.Assert.*;
+
+import net.minecraftforge.common.util.IntObjectHashMap;
+
+import org.junit.Test;
+
+public class OreIdTablesTest
+{
+    private static final int ITEM = 42;
+
+    private static int key(int item, int meta)
+    {
+        return item | ((meta + 1) << 16);
+    }
+
+    @Test
+    public void testUnion()
+    {
+        assertArrayEquals(new int[] { 1, 2, 3, 5, 6 }, OreIdTables.union(new int[] { 1, 3, 5 }, new int[] { 2, 3, 6 }));
+        assertArrayEquals(new int[] { 1, 2 }, OreIdTables.union(new int[] { 1, 2 }, new int[] { 1, 2 }));
+        assertArrayEquals(new int[] { 4 }, OreIdTables.union(new int[0], new int[] { 4 }));
+        assertArrayEquals(new int[] { 4 }, OreIdTables.union(new int[] { 4 }, new int[0]));
+        assertArrayEquals(new int[0], OreIdTables.union(new int[0], new int[0]));
+        assertArrayEquals(new int[] { 0, 7, 8, 9 }, OreIdTables.union(new int[] { 7, 8, 9 }, new int[] { 0 }));
+    }
+
+    @Test
+    public void testAddStackToId()
+    {
+        IntObjectHashMap<int[]> stackToId = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> damageKeys = new IntObjectHashMap<int[]>();
+        assertTrue(OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 5));
+        assertTrue(OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 1));
+        assertTrue(OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 3));
+        assertFalse("duplicates are refused", OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 3));
+        assertArrayEquals("ids are kept sorted", new int[] { 1, 3, 5 }, stackToId.get(ITEM));
+    }
+
+    @Test
+    public void testDamageKeysIncludeWildcard()
+    {
+        IntObjectHashMap<int[]> stackToId = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> stackToIds = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> damageKeys = new IntObjectHashMap<int[]>();
+        OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 2);
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, ITEM, true);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 0), 1);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 0), 2);
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, key(ITEM, 0), false);
+
+        assertArrayEquals(new int[] { 2 }, stackToIds.get(ITEM));
+        assertArrayEquals("no duplicate of the wildcard id", new int[] { 1, 2 }, stackToIds.get(key(ITEM, 0)));
+    }
+
+    @Test
+    public void testWildcardRefreshesDamageKeys()
+    {
+        IntObjectHashMap<int[]> stackToId = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> stackToIds = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> damageKeys = new IntObjectHashMap<int[]>();
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 0), 1);
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, key(ITEM, 0), false);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 7), 3);
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, key(ITEM, 7), false);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM + 1, 0), 9);
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, key(ITEM + 1, 0), false);
+
+        // A wildcard registered later has to reach every damage value of the item, and only of that item
+        OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 4);
+        OreIdTables.bakeStackToIds(stackToIds, stackToId, damageKeys, ITEM, true);
+
+        assertArrayEquals(new int[] { 4 }, stackToIds.get(ITEM));
+        assertArrayEquals(new int[] { 1, 4 }, stackToIds.get(key(ITEM, 0)));
+        assertArrayEquals(new int[] { 3, 4 }, stackToIds.get(key(ITEM, 7)));
+        assertArrayEquals(new int[] { 9 }, stackToIds.get(key(ITEM + 1, 0)));
+    }
+
+    @Test
+    public void testDamageKeyIndex()
+    {
+        IntObjectHashMap<int[]> stackToId = new IntObjectHashMap<int[]>();
+        IntObjectHashMap<int[]> damageKeys = new IntObjectHashMap<int[]>();
+        OreIdTables.addStackToId(stackToId, damageKeys, ITEM, 1);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 0), 1);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 0), 2);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM, 3), 1);
+        OreIdTables.addStackToId(stackToId, damageKeys, key(ITEM + 1, 0), 1);
+
+        assertArrayEquals("each damage key once, wildcards left out", new int[] { key(ITEM, 0), key(ITEM, 3) }, damageKeys.get(ITEM));
+        assertArrayEquals(new int[] { key(ITEM + 1, 0) }, damageKeys.get(ITEM + 1));
+        assertNull(damageKeys.get(ITEM + 2));
+    }
+}
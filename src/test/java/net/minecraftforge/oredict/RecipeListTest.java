@@ -0,0 +1,116 @@
+package net.minecraftforge.oredict;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+import net.minecraft.item.crafting.IRecipe;
+
+import org.junit.Test;
+
+public class RecipeListTest
+{
+    private static IRecipe recipe()
+    {
+        return (IRecipe)Proxy.newProxyInstance(IRecipe.class.getClassLoader(), new Class<?>[] { IRecipe.class }, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if (method.getName().equals("equals"))
+                {
+                    return proxy == args[0];
+                }
+                if (method.getName().equals("hashCode"))
+                {
+                    return System.identityHashCode(proxy);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testEveryChangeIsCounted()
+    {
+        RecipeList list = new RecipeList();
+        int count = list.getModCount();
+        list.add(recipe());
+        list.add(recipe());
+        list.add(recipe());
+        assertTrue("add", list.getModCount() != count);
+
+        count = list.getModCount();
+        list.remove(1);
+        assertTrue("remove", list.getModCount() != count);
+
+        count = list.getModCount();
+        list.set(0, recipe());
+        assertTrue("in place replace", list.getModCount() != count);
+
+        count = list.getModCount();
+        ListIterator<IRecipe> itr = list.listIterator();
+        itr.next();
+        itr.set(recipe());
+        assertTrue("ListIterator.set", list.getModCount() != count);
+
+        count = list.getModCount();
+        list.get(0);
+        list.size();
+        assertEquals("reading is no change", count, list.getModCount());
+    }
+
+    @Test
+    public void testReplacingWhileIterating()
+    {
+        RecipeList list = new RecipeList();
+        for (int i = 0; i < 10; i++)
+        {
+            list.add(recipe());
+        }
+        // Mods replace recipes in place while iterating, this must not upset the iterator
+        for (ListIterator<IRecipe> itr = list.listIterator(); itr.hasNext(); )
+        {
+            itr.next();
+            itr.set(recipe());
+        }
+        for (Iterator<IRecipe> itr = list.iterator(); itr.hasNext(); )
+        {
+            itr.next();
+            list.set(0, recipe());
+        }
+    }
+
+    @Test
+    public void testSort()
+    {
+        final RecipeList list = new RecipeList();
+        final RecipeList original = new RecipeList();
+        for (int i = 0; i < 10; i++)
+        {
+            list.add(recipe());
+        }
+        original.addAll(list);
+        int count = list.getModCount();
+        // Reverse the list, the way RecipeSorter sorts it
+        Collections.sort(list, new Comparator<IRecipe>()
+        {
+            @Override
+            public int compare(IRecipe a, IRecipe b)
+            {
+                return original.indexOf(b) - original.indexOf(a);
+            }
+        });
+        assertTrue("sorting", list.getModCount() != count);
+        for (int i = 0; i < 10; i++)
+        {
+            assertSame(original.get(9 - i), list.get(i));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package net.minecraftforge.server;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.minecraftforge.server.ChunkPregenerator.Shape;
+import net.minecraftforge.server.ChunkPregenerator.Task;
+
+import org.junit.Test;
+
+public class ChunkPregeneratorTest
+{
+    private static final int CENTER_X = 100;
+    private static final int CENTER_Z = -37;
+
+    @Test
+    public void testSpiral()
+    {
+        for (int radius = 0; radius <= 12; radius++)
+        {
+            Task task = new Task(0, CENTER_X, CENTER_Z, radius, Shape.SPIRAL);
+            Set<Long> seen = new HashSet<Long>();
+            task.locate(0);
+            assertEquals("the spiral starts at the center", CENTER_X, task.getX());
+            assertEquals(CENTER_Z, task.getZ());
+            int lastX = task.getX();
+            int lastZ = task.getZ();
+            int lastRing = 0;
+            for (long index = 0; index < task.getTotal(); index++)
+            {
+                task.locate(index);
+                int dx = task.getX() - CENTER_X;
+                int dz = task.getZ() - CENTER_Z;
+                int ring = Math.max(Math.abs(dx), Math.abs(dz));
+                assertTrue("position " + index + " lies outside the area", ring <= radius);
+                assertTrue("position " + index + " goes back to an inner ring", ring >= lastRing);
+                assertTrue("position " + index + " visited twice", seen.add(((long)dx << 32) | (dz & 0xFFFFFFFFL)));
+                if (index > 0)
+                {
+                    assertEquals("position " + index + " is not next to the previous one", 1, Math.abs(task.getX() - lastX) + Math.abs(task.getZ() - lastZ));
+                }
+                lastX = task.getX();
+                lastZ = task.getZ();
+                lastRing = ring;
+            }
+            assertEquals("every chunk of the area is visited", task.getTotal(), seen.size());
+        }
+    }
+
+    @Test
+    public void testSquare()
+    {
+        int radius = 5;
+        Task task = new Task(0, CENTER_X, CENTER_Z, radius, Shape.SQUARE);
+        long index = 0;
+        for (int z = -radius; z <= radius; z++)
+        {
+            for (int x = -radius; x <= radius; x++)
+            {
+                task.locate(index++);
+                assertEquals(CENTER_X + x, task.getX());
+                assertEquals(CENTER_Z + z, task.getZ());
+            }
+        }
+        assertEquals(task.getTotal(), index);
+    }
+}